@@ -30,6 +30,9 @@ dependencies {
     implementation("org.eclipse.microprofile.openapi:microprofile-openapi-api")
     implementation("jakarta.validation:jakarta.validation-api")
 
+    // COMPRESSION
+    implementation("com.github.luben:zstd-jni")
+
     // TEST
     testImplementation(testFixtures(project(":server:core")))
     testImplementation("io.quarkus:quarkus-junit5")
@@ -0,0 +1,66 @@
+package io.whitefox.api.configuration;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.whitefox.core.services.DeltaLogCache;
+import io.whitefox.core.services.DeltaSnapshotIndexCache;
+import io.whitefox.core.services.IcebergTableCache;
+import io.whitefox.core.services.PresignedUrlCache;
+import io.whitefox.core.services.QueriedFilesIndex;
+import io.whitefox.core.services.ReadTableResultCache;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.function.Supplier;
+
+/** Exposes hit, miss and eviction counters of the server side caches through micrometer. */
+@Singleton
+public class CacheMetrics implements MeterBinder {
+
+  private final DeltaLogCache deltaLogCache;
+  private final IcebergTableCache icebergTableCache;
+  private final ReadTableResultCache readTableResultCache;
+  private final DeltaSnapshotIndexCache deltaSnapshotIndexCache;
+  private final PresignedUrlCache presignedUrlCache;
+  private final QueriedFilesIndex queriedFilesIndex;
+
+  @Inject
+  public CacheMetrics(
+      DeltaLogCache deltaLogCache,
+      IcebergTableCache icebergTableCache,
+      ReadTableResultCache readTableResultCache,
+      DeltaSnapshotIndexCache deltaSnapshotIndexCache,
+      PresignedUrlCache presignedUrlCache,
+      QueriedFilesIndex queriedFilesIndex) {
+    this.deltaLogCache = deltaLogCache;
+    this.icebergTableCache = icebergTableCache;
+    this.readTableResultCache = readTableResultCache;
+    this.deltaSnapshotIndexCache = deltaSnapshotIndexCache;
+    this.presignedUrlCache = presignedUrlCache;
+    this.queriedFilesIndex = queriedFilesIndex;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    bindCache(registry, "delta-log", deltaLogCache::stats);
+    bindCache(registry, "iceberg-table", icebergTableCache::stats);
+    bindCache(registry, "read-table-result", readTableResultCache::stats);
+    bindCache(registry, "delta-snapshot-index", deltaSnapshotIndexCache::stats);
+    bindCache(registry, "presigned-url", presignedUrlCache::stats);
+    bindCache(registry, "queried-files", queriedFilesIndex::stats);
+  }
+
+  private static void bindCache(
+      MeterRegistry registry, String cacheName, Supplier<CacheStats> stats) {
+    FunctionCounter.builder("whitefox.cache.hits", stats, s -> s.get().hitCount())
+        .tag("cache", cacheName)
+        .register(registry);
+    FunctionCounter.builder("whitefox.cache.misses", stats, s -> s.get().missCount())
+        .tag("cache", cacheName)
+        .register(registry);
+    FunctionCounter.builder("whitefox.cache.evictions", stats, s -> s.get().evictionCount())
+        .tag("cache", cacheName)
+        .register(registry);
+  }
+}
@@ -64,7 +64,7 @@ public class DeltaMappers {
     return new TableQueryResponse(
         protocol2Api(readTableResult.protocol()),
         metadata2Api(readTableResult.metadata()),
-        readTableResult.files().stream().map(DeltaMappers::file2Api).collect(Collectors.toList()));
+        readTableResult.files().map(DeltaMappers::file2Api));
   }
 
   private static ParquetMetadata metadata2Api(Metadata metadata) {
@@ -115,6 +115,16 @@ public class DeltaMappers {
     return new TableReferenceAndReadRequest(share, schema, table, api2ReadTableRequest(request));
   }
 
+  public static RefreshTableFilesResponse refreshedFiles2api(List<TableFile> files) {
+    return new RefreshTableFilesResponse()
+        .files(files.stream()
+            .map(f -> new RefreshedFile()
+                .id(f.id())
+                .url(f.url())
+                .expirationTimestamp(f.expirationTimestamp()))
+            .collect(Collectors.toList()));
+  }
+
   public static io.whitefox.api.deltasharing.model.v1.generated.Table table2api(
       SharedTable sharedTable) {
     return new io.whitefox.api.deltasharing.model.v1.generated.Table()
@@ -0,0 +1,132 @@
+package io.whitefox.api.deltasharing;
+
+import io.whitefox.core.ReadTableHints;
+import io.whitefox.core.services.capabilities.ResponseFormat;
+import jakarta.ws.rs.core.EntityTag;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Weak entity tags of the metadata and query responses of a table.
+ * <p>
+ * A tag is the hash of the table, the snapshot version, the normalized query hints and the
+ * response format requested by the client, so it can be compared with {@code If-None-Match}
+ * knowing only the version of the table, without loading its metadata or its files. The tags are
+ * weak because the same one is sent for the identity, gzip and zstd encodings of a response, which
+ * are equivalent but not byte for byte the same.
+ * <p>
+ * The tag of a query response also carries the time its presigned URLs have to be refreshed
+ * before, so that the response is only revalidated while its URLs are still valid and the
+ * {@code 304} can tell the client when to refresh them.
+ */
+public class TableEntityTags {
+
+  private static final char REFRESH_SEPARATOR = '-';
+
+  private TableEntityTags() {}
+
+  public static EntityTag metadata(
+      String share, String schema, String table, long version, ResponseFormat responseFormat) {
+    return hash("metadata", share, schema, table, String.valueOf(version), responseFormat.name());
+  }
+
+  public static EntityTag query(
+      String share,
+      String schema,
+      String table,
+      long version,
+      ReadTableHints hints,
+      ResponseFormat responseFormat) {
+    return hash(
+        "query",
+        share,
+        schema,
+        table,
+        String.valueOf(version),
+        hints.toString(),
+        responseFormat.name());
+  }
+
+  /**
+   * The tag of a query response tagged {@code queryTag}, whose URLs have to be refreshed before
+   * {@code refreshUrlsBefore}.
+   */
+  public static EntityTag withRefreshUrlsBefore(EntityTag queryTag, Instant refreshUrlsBefore) {
+    return new EntityTag(
+        queryTag.getValue() + REFRESH_SEPARATOR + refreshUrlsBefore.toEpochMilli(), true);
+  }
+
+  /**
+   * The tag in {@code ifNoneMatch}, the value of an {@code If-None-Match} header, of a response
+   * tagged {@code queryTag} whose URLs, if any, do not have to be refreshed before {@code now}.
+   * Unlike {@link #matches}, {@code *} matches no query response, whose URLs may have expired.
+   */
+  public static Optional<EntityTag> matchingQuery(
+      String ifNoneMatch, EntityTag queryTag, Instant now) {
+    if (ifNoneMatch == null) {
+      return Optional.empty();
+    }
+    return Arrays.stream(ifNoneMatch.split(","))
+        .map(String::trim)
+        .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+        .filter(tag -> tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\""))
+        .map(tag -> tag.substring(1, tag.length() - 1))
+        .filter(tag -> tag.equals(queryTag.getValue())
+            || (tag.startsWith(queryTag.getValue() + REFRESH_SEPARATOR)
+                && refreshUrlsBefore(tag).filter(now::isBefore).isPresent()))
+        .findFirst()
+        .map(tag -> new EntityTag(tag, true));
+  }
+
+  /**
+   * The time the URLs of the query response tagged {@code entityTag} have to be refreshed before.
+   */
+  public static Optional<Instant> refreshUrlsBefore(EntityTag entityTag) {
+    return refreshUrlsBefore(entityTag.getValue());
+  }
+
+  private static Optional<Instant> refreshUrlsBefore(String tag) {
+    var separator = tag.indexOf(REFRESH_SEPARATOR);
+    if (separator < 0) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(Instant.ofEpochMilli(Long.parseLong(tag.substring(separator + 1))));
+    } catch (NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Whether {@code ifNoneMatch}, the value of an {@code If-None-Match} header, matches
+   * {@code entityTag}, using the weak comparison required for that header.
+   */
+  public static boolean matches(String ifNoneMatch, EntityTag entityTag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    return Arrays.stream(ifNoneMatch.split(","))
+        .map(String::trim)
+        .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+        .anyMatch(tag -> tag.equals("*") || tag.equals("\"" + entityTag.getValue() + "\""));
+  }
+
+  private static EntityTag hash(String... parts) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256");
+      for (String part : parts) {
+        digest.update(part.getBytes(StandardCharsets.UTF_8));
+        // separates the parts, so that they cannot be shifted into each other
+        digest.update((byte) 0);
+      }
+      return new EntityTag(HexFormat.of().formatHex(digest.digest()), true);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -3,7 +3,7 @@ package io.whitefox.api.deltasharing.model.v1;
 import io.whitefox.api.deltasharing.model.v1.parquet.ParquetFile;
 import io.whitefox.api.deltasharing.model.v1.parquet.ParquetMetadata;
 import io.whitefox.api.deltasharing.model.v1.parquet.ParquetProtocol;
-import java.util.List;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.Value;
 
@@ -13,5 +13,5 @@ public class TableQueryResponse {
 
   @NonNull ParquetMetadata metadata;
 
-  @NonNull List<ParquetFile> files;
+  @NonNull Stream<ParquetFile> files;
 }
@@ -1,12 +1,18 @@
 package io.whitefox.api.deltasharing.serializers;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.whitefox.api.deltasharing.model.v1.TableQueryResponse;
 import io.whitefox.api.deltasharing.model.v1.parquet.ParquetFile;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 
 @ApplicationScoped
 public class TableQueryResponseSerializer implements Serializer<TableQueryResponse> {
@@ -15,23 +21,42 @@ public class TableQueryResponseSerializer implements Serializer<TableQueryRespon
 
   @Inject
   public TableQueryResponseSerializer(ObjectMapper objectMapper) {
-    this.objectWriter = objectMapper.writer();
+    // lines are buffered by the generator and flushed when its buffer is full
+    this.objectWriter = objectMapper
+        .writer()
+        .withRootValueSeparator(LINE_FEED)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
   }
 
   @Override
   public String serialize(TableQueryResponse data) {
-    StringBuilder stringBuilder = new StringBuilder();
-    try {
-      stringBuilder.append(objectWriter.writeValueAsString(data.protocol()));
-      stringBuilder.append(LINE_FEED);
-      stringBuilder.append(objectWriter.writeValueAsString(data.metadata()));
-      for (ParquetFile line : data.files()) {
-        stringBuilder.append(LINE_FEED);
-        stringBuilder.append(objectWriter.writeValueAsString(line));
-      }
-      return stringBuilder.toString();
-    } catch (JsonProcessingException e) {
-      throw new RuntimeException(e);
+    var stringWriter = new StringWriter();
+    try (var sequenceWriter = objectWriter.writeValues(stringWriter)) {
+      write(data, sequenceWriter);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return stringWriter.toString();
+  }
+
+  /**
+   * Writes {@code data} to {@code outputStream} one line at a time as its files are consumed,
+   * flushing protocol and metadata right away so that clients can start reading them while the
+   * files are still being signed.
+   */
+  public void serialize(TableQueryResponse data, OutputStream outputStream) throws IOException {
+    try (var sequenceWriter = objectWriter.writeValues(outputStream)) {
+      write(data, sequenceWriter);
+    }
+  }
+
+  private void write(TableQueryResponse data, SequenceWriter sequenceWriter) throws IOException {
+    sequenceWriter.write(data.protocol());
+    sequenceWriter.write(data.metadata());
+    sequenceWriter.flush();
+    Iterator<ParquetFile> files = data.files().iterator();
+    while (files.hasNext()) {
+      sequenceWriter.write(files.next());
     }
   }
 }
@@ -2,24 +2,37 @@ package io.whitefox.api.deltasharing.server;
 
 import static io.whitefox.api.server.CommonMappers.mapList;
 
+import io.vertx.ext.web.RoutingContext;
 import io.whitefox.api.deltasharing.ClientCapabilitiesMapper;
 import io.whitefox.api.deltasharing.DeltaMappers;
+import io.whitefox.api.deltasharing.TableEntityTags;
 import io.whitefox.api.deltasharing.encoders.DeltaPageTokenEncoder;
 import io.whitefox.api.deltasharing.model.v1.generated.ListSchemasResponse;
 import io.whitefox.api.deltasharing.model.v1.generated.ListShareResponse;
 import io.whitefox.api.deltasharing.model.v1.generated.ListTablesResponse;
 import io.whitefox.api.deltasharing.model.v1.generated.QueryRequest;
+import io.whitefox.api.deltasharing.model.v1.generated.RefreshTableFilesRequest;
 import io.whitefox.api.deltasharing.serializers.TableMetadataSerializer;
 import io.whitefox.api.deltasharing.serializers.TableQueryResponseSerializer;
 import io.whitefox.api.deltasharing.server.v1.generated.DeltaApiApi;
 import io.whitefox.api.server.ApiUtils;
+import io.whitefox.core.ReadTableHints;
+import io.whitefox.core.ReadTableRequest;
 import io.whitefox.core.services.ContentAndToken;
 import io.whitefox.core.services.DeltaSharesService;
 import io.whitefox.core.services.ShareService;
+import io.whitefox.core.services.capabilities.ClientCapabilities;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class DeltaSharesApiImpl implements DeltaApiApi, ApiUtils {
 
@@ -31,6 +44,9 @@ public class DeltaSharesApiImpl implements DeltaApiApi, ApiUtils {
   private final TableQueryResponseSerializer tableQueryResponseSerializer;
 
   private final ClientCapabilitiesMapper clientCapabilitiesMapper;
+  private final HttpHeaders httpHeaders;
+  private final RoutingContext routingContext;
+  private final Clock clock;
 
   @Inject
   public DeltaSharesApiImpl(
@@ -39,13 +55,19 @@ public class DeltaSharesApiImpl implements DeltaApiApi, ApiUtils {
       DeltaPageTokenEncoder encoder,
       TableMetadataSerializer tableResponseSerializer,
       TableQueryResponseSerializer tableQueryResponseSerializer,
-      ClientCapabilitiesMapper clientCapabilitiesMapper) {
+      ClientCapabilitiesMapper clientCapabilitiesMapper,
+      HttpHeaders httpHeaders,
+      RoutingContext routingContext,
+      Clock clock) {
     this.deltaSharesService = deltaSharesService;
     this.tokenEncoder = encoder;
     this.tableResponseSerializer = tableResponseSerializer;
     this.tableQueryResponseSerializer = tableQueryResponseSerializer;
     this.shareService = shareService;
     this.clientCapabilitiesMapper = clientCapabilitiesMapper;
+    this.httpHeaders = httpHeaders;
+    this.routingContext = routingContext;
+    this.clock = clock;
   }
 
   @Override
@@ -83,20 +105,29 @@ public class DeltaSharesApiImpl implements DeltaApiApi, ApiUtils {
           var startingTimestamp = parseTimestamp(startingTimestampStr);
           var clientCapabilities =
               clientCapabilitiesMapper.parseDeltaSharingCapabilities(deltaSharingCapabilities);
+          // the version alone tells whether the client already has the metadata
           return optionalToNotFound(
-              deltaSharesService.getTableMetadata(
-                  share, schema, table, startingTimestamp, clientCapabilities),
-              m -> optionalToNotFound(
-                  deltaSharesService.getTableVersion(share, schema, table, startingTimestamp),
-                  v -> Response.ok(
-                          tableResponseSerializer.serialize(
-                              DeltaMappers.toTableResponseMetadata(m)),
-                          ndjsonMediaType)
-                      .header(DELTA_TABLE_VERSION_HEADER, String.valueOf(v))
-                      .header(
-                          DELTA_SHARE_CAPABILITIES_HEADER,
-                          DeltaMappers.toResponseFormatHeader(m.format()))
-                      .build()));
+              deltaSharesService.getTableVersion(share, schema, table, startingTimestamp),
+              v -> {
+                var entityTag = TableEntityTags.metadata(
+                    share, schema, table, v, clientCapabilities.responseFormat());
+                if (isNotModified(entityTag)) {
+                  return notModified(entityTag, v);
+                }
+                return optionalToNotFound(
+                    deltaSharesService.getTableMetadata(
+                        share, schema, table, startingTimestamp, clientCapabilities),
+                    m -> Response.ok(
+                            tableResponseSerializer.serialize(
+                                DeltaMappers.toTableResponseMetadata(m)),
+                            ndjsonMediaType)
+                        .tag(entityTag)
+                        .header(DELTA_TABLE_VERSION_HEADER, String.valueOf(v))
+                        .header(
+                            DELTA_SHARE_CAPABILITIES_HEADER,
+                            DeltaMappers.toResponseFormatHeader(m.format()))
+                        .build());
+              });
         },
         exceptionToResponse);
   }
@@ -196,24 +227,165 @@ public class DeltaSharesApiImpl implements DeltaApiApi, ApiUtils {
       String deltaSharingCapabilities) {
     return wrapExceptions(
         () -> {
+          var readTableRequest = DeltaMappers.api2ReadTableRequest(queryRequest);
+          var clientCapabilities =
+              clientCapabilitiesMapper.parseDeltaSharingCapabilities(deltaSharingCapabilities);
+          // the version is resolved ahead of the file list only when the client may have it
+          // already, otherwise it is the one of the snapshot read
+          if (httpHeaders.getHeaderString(HttpHeaders.IF_NONE_MATCH) != null) {
+            var version = resolveVersion(share, schema, table, readTableRequest);
+            if (version.isPresent()) {
+              var entityTag = queryEntityTag(
+                  share, schema, table, version.get(), readTableRequest, clientCapabilities);
+              // the response is revalidated only while its URLs are still valid
+              var matched = TableEntityTags.matchingQuery(
+                  httpHeaders.getHeaderString(HttpHeaders.IF_NONE_MATCH),
+                  entityTag,
+                  clock.instant());
+              if (matched.isPresent()) {
+                return notModified(
+                    matched.get(),
+                    version.get(),
+                    TableEntityTags.refreshUrlsBefore(matched.get()));
+              }
+            }
+          }
           var readResult = deltaSharesService.queryTable(
+              share, schema, table, readTableRequest, clientCapabilities);
+          // the files, and with them the signer and the delta log, are closed once written or,
+          // when the entity is never written, once the response is done
+          var written = new AtomicBoolean();
+          routingContext.addEndHandler(ended -> {
+            if (written.compareAndSet(false, true)) {
+              readResult.files().close();
+            }
+          });
+          var queryTag = queryEntityTag(
               share,
               schema,
               table,
-              DeltaMappers.api2ReadTableRequest(queryRequest),
-              clientCapabilitiesMapper.parseDeltaSharingCapabilities(deltaSharingCapabilities));
-          var serializedReadResult =
-              tableQueryResponseSerializer.serialize(DeltaMappers.readTableResult2api(readResult));
-          return Response.ok(serializedReadResult, ndjsonMediaType)
+              taggedVersion(readTableRequest, readResult.version()),
+              readTableRequest,
+              clientCapabilities);
+          var entityTag = readResult
+              .refreshUrlsBefore()
+              .map(refreshBefore -> TableEntityTags.withRefreshUrlsBefore(queryTag, refreshBefore))
+              .orElse(queryTag);
+          var response = DeltaMappers.readTableResult2api(readResult);
+          // lines are written to the socket while files are signed, the blocking output stream
+          // holds back signing when the client is slower than the server
+          StreamingOutput streamingOutput = out -> {
+            if (!written.compareAndSet(false, true)) {
+              return;
+            }
+            try (var files = readResult.files()) {
+              tableQueryResponseSerializer.serialize(response, out);
+            }
+          };
+          return Response.ok(streamingOutput, ndjsonMediaType)
+              .tag(entityTag)
               .header(DELTA_TABLE_VERSION_HEADER, readResult.version())
               .header(
                   DELTA_SHARE_CAPABILITIES_HEADER,
                   DeltaMappers.toResponseFormatHeader(readResult.responseFormat()))
+              .header(
+                  WHITEFOX_URLS_REFRESH_BEFORE_HEADER,
+                  readResult.refreshUrlsBefore().map(Instant::toEpochMilli).orElse(null))
               .build();
         },
         exceptionToResponse);
   }
 
+  @Override
+  public Response refreshTableFiles(
+      String share,
+      String schema,
+      String table,
+      RefreshTableFilesRequest refreshTableFilesRequest) {
+    return wrapExceptions(
+        () -> {
+          if (refreshTableFilesRequest == null
+              || refreshTableFilesRequest.getVersion() == null
+              || refreshTableFilesRequest.getIds() == null) {
+            throw new IllegalArgumentException("version and ids of the files are required");
+          }
+          var files = deltaSharesService.refreshTableFiles(
+              share,
+              schema,
+              table,
+              refreshTableFilesRequest.getVersion(),
+              refreshTableFilesRequest.getIds());
+          return Response.ok(DeltaMappers.refreshedFiles2api(files)).build();
+        },
+        exceptionToResponse);
+  }
+
+  /**
+   * The version of the snapshot read by {@code readTableRequest}, without loading its files.
+   */
+  private Optional<Long> resolveVersion(
+      String share, String schema, String table, ReadTableRequest readTableRequest) {
+    if (readTableRequest instanceof ReadTableRequest.ReadTableVersion) {
+      return Optional.of(((ReadTableRequest.ReadTableVersion) readTableRequest).version());
+    } else if (readTableRequest instanceof ReadTableRequest.ReadTableAsOfTimestamp) {
+      return deltaSharesService.getTableVersion(
+          share,
+          schema,
+          table,
+          Optional.of(new Timestamp(
+              ((ReadTableRequest.ReadTableAsOfTimestamp) readTableRequest).timestamp())));
+    } else {
+      return deltaSharesService.getTableVersion(share, schema, table, Optional.empty());
+    }
+  }
+
+  /**
+   * The version a query response is tagged with, the same one {@link #resolveVersion} resolves
+   * ahead of the query: the version requested, which for iceberg tables is a snapshot id rather
+   * than the sequence number the response reports, or else {@code readVersion}, the one read.
+   */
+  private static long taggedVersion(ReadTableRequest readTableRequest, long readVersion) {
+    if (readTableRequest instanceof ReadTableRequest.ReadTableVersion) {
+      return ((ReadTableRequest.ReadTableVersion) readTableRequest).version();
+    }
+    return readVersion;
+  }
+
+  private EntityTag queryEntityTag(
+      String share,
+      String schema,
+      String table,
+      long version,
+      ReadTableRequest readTableRequest,
+      ClientCapabilities clientCapabilities) {
+    return TableEntityTags.query(
+        share,
+        schema,
+        table,
+        version,
+        ReadTableHints.of(readTableRequest),
+        clientCapabilities.responseFormat());
+  }
+
+  private boolean isNotModified(EntityTag entityTag) {
+    return TableEntityTags.matches(
+        httpHeaders.getHeaderString(HttpHeaders.IF_NONE_MATCH), entityTag);
+  }
+
+  private Response notModified(EntityTag entityTag, long version) {
+    return notModified(entityTag, version, Optional.empty());
+  }
+
+  private Response notModified(
+      EntityTag entityTag, long version, Optional<Instant> refreshUrlsBefore) {
+    return Response.notModified(entityTag)
+        .header(DELTA_TABLE_VERSION_HEADER, String.valueOf(version))
+        .header(
+            WHITEFOX_URLS_REFRESH_BEFORE_HEADER,
+            refreshUrlsBefore.map(Instant::toEpochMilli).orElse(null))
+        .build();
+  }
+
   private Optional<ContentAndToken.Token> parseToken(String t) {
     return Optional.ofNullable(t).map(tokenEncoder::decodePageToken);
   }
@@ -0,0 +1,209 @@
+package io.whitefox.api.deltasharing.server;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Compresses the NDJSON responses of the delta sharing protocol with the encoding preferred by
+ * the client among {@code zstd} and {@code gzip}, as negotiated through {@code Accept-Encoding}.
+ * <p>
+ * The filter picks the encoding and the interceptor compresses the entity while it is written,
+ * on the worker thread serving the request rather than on the event loop. Streamed entities are
+ * compressed as they are written, flushing the compressor whenever the serializer flushes, while
+ * entities whose size is known are left as they are when smaller than {@code min-size} bytes.
+ */
+@Provider
+public class ResponseCompressionFilter implements ContainerResponseFilter, WriterInterceptor {
+
+  static final String ZSTD = "zstd";
+  static final String GZIP = "gzip";
+  private static final List<String> SUPPORTED_ENCODINGS = List.of(ZSTD, GZIP);
+  private static final MediaType NDJSON_MEDIA_TYPE = new MediaType("application", "x-ndjson");
+  private static final int BUFFER_SIZE = 8192;
+
+  private final boolean enabled;
+  private final int gzipLevel;
+  private final int zstdLevel;
+  private final int minSize;
+
+  // For CDI 2.0 to work
+  public ResponseCompressionFilter() {
+    this(true, 6, 3, 1024);
+  }
+
+  @Inject
+  public ResponseCompressionFilter(
+      @ConfigProperty(name = "whitefox.server.compression.enabled", defaultValue = "true")
+          boolean enabled,
+      @ConfigProperty(name = "whitefox.server.compression.gzip-level", defaultValue = "6")
+          int gzipLevel,
+      @ConfigProperty(name = "whitefox.server.compression.zstd-level", defaultValue = "3")
+          int zstdLevel,
+      @ConfigProperty(name = "whitefox.server.compression.min-size", defaultValue = "1024")
+          int minSize) {
+    this.enabled = enabled;
+    this.gzipLevel = gzipLevel;
+    this.zstdLevel = zstdLevel;
+    this.minSize = minSize;
+  }
+
+  @Override
+  public void filter(
+      ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+    if (!enabled
+        || !NDJSON_MEDIA_TYPE.isCompatible(responseContext.getMediaType())
+        || responseContext.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+      return;
+    }
+    responseContext.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (knownSize(responseContext.getEntity()) < minSize) {
+      return;
+    }
+    negotiate(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING))
+        .ifPresent(encoding ->
+            responseContext.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, encoding));
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    var encoding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+    if (!ZSTD.equals(encoding) && !GZIP.equals(encoding)) {
+      context.proceed();
+      return;
+    }
+    context.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+    var outputStream = context.getOutputStream();
+    // closing the compressor writes its trailer, the response stream is closed by the server
+    try (var compressed = ZSTD.equals(encoding)
+        ? new ZstdOutputStream(new NonClosingOutputStream(outputStream), zstdLevel)
+        : gzip(new NonClosingOutputStream(outputStream))) {
+      context.setOutputStream(compressed);
+      context.proceed();
+    } finally {
+      context.setOutputStream(outputStream);
+    }
+  }
+
+  /**
+   * Returns the supported encoding with the highest quality in {@code acceptEncoding}, preferring
+   * zstd on ties, empty when the client accepts none of them.
+   */
+  static Optional<String> negotiate(String acceptEncoding) {
+    if (acceptEncoding == null || acceptEncoding.isBlank()) {
+      return Optional.empty();
+    }
+    String best = null;
+    double bestQuality = 0;
+    for (String encoding : SUPPORTED_ENCODINGS) {
+      var quality = quality(acceptEncoding, encoding);
+      if (quality > bestQuality) {
+        best = encoding;
+        bestQuality = quality;
+      }
+    }
+    return Optional.ofNullable(best);
+  }
+
+  /**
+   * Quality of {@code encoding} in {@code acceptEncoding}, falling back to the one of {@code *},
+   * 0 when neither is listed or their quality cannot be parsed.
+   */
+  private static double quality(String acceptEncoding, String encoding) {
+    double wildcard = 0;
+    for (String coding : acceptEncoding.split(",")) {
+      var parts = coding.split(";");
+      var name = parts[0].trim().toLowerCase(Locale.ROOT);
+      double quality = 1;
+      for (int i = 1; i < parts.length; i++) {
+        var parameter = parts[i].trim();
+        if (parameter.startsWith("q=")) {
+          try {
+            quality = Double.parseDouble(parameter.substring(2));
+          } catch (NumberFormatException e) {
+            quality = 0;
+          }
+        }
+      }
+      if (name.equals(encoding)) {
+        return quality;
+      } else if (name.equals("*")) {
+        wildcard = quality;
+      }
+    }
+    return wildcard;
+  }
+
+  /**
+   * The size in bytes of {@code entity} once written, Strings are written in UTF-8.
+   */
+  static long knownSize(Object entity) {
+    if (entity instanceof String) {
+      return utf8Length((String) entity);
+    } else if (entity instanceof byte[]) {
+      return ((byte[]) entity).length;
+    } else {
+      // streamed entities are compressed regardless of their size
+      return Long.MAX_VALUE;
+    }
+  }
+
+  private static long utf8Length(String string) {
+    long length = 0;
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (c < 0x80) {
+        length += 1;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isSurrogate(c)) {
+        // each half of a surrogate pair is half of a 4 bytes code point
+        length += 2;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  private OutputStream gzip(OutputStream outputStream) throws IOException {
+    // sync flush, so that lines flushed by the serializer reach the client right away
+    return new GZIPOutputStream(outputStream, BUFFER_SIZE, true) {
+      {
+        def.setLevel(gzipLevel);
+      }
+    };
+  }
+
+  private static final class NonClosingOutputStream extends FilterOutputStream {
+
+    private NonClosingOutputStream(OutputStream outputStream) {
+      super(outputStream);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+  }
+}
@@ -5,4 +5,6 @@ public interface DeltaHeaders {
   String DELTA_SHARING_READER_FEATURES = "readerfeatures";
   String DELTA_TABLE_VERSION_HEADER = "Delta-Table-Version";
   String DELTA_SHARE_CAPABILITIES_HEADER = "delta-sharing-capabilities";
+  /** Epoch millis before which the clients should refresh the presigned URLs of a response. */
+  String WHITEFOX_URLS_REFRESH_BEFORE_HEADER = "Whitefox-Urls-Refresh-Before";
 }
@@ -0,0 +1,76 @@
+package io.whitefox.api.deltasharing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.whitefox.core.ReadTableHints;
+import io.whitefox.core.ReadTableRequest;
+import io.whitefox.core.services.capabilities.ResponseFormat;
+import jakarta.ws.rs.core.EntityTag;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+public class TableEntityTagsTest {
+
+  private static final String IS_NULL =
+      "{\"op\":\"isNull\",\"children\":[{\"op\":\"column\",\"name\":\"id\"}]}";
+
+  @Test
+  void equivalentQueriesHaveTheSameTag() {
+    var tag = query(0L, IS_NULL);
+    // formatting and key order do not matter
+    assertEquals(
+        tag,
+        query(0L, "{ \"children\": [{\"name\": \"id\", \"op\": \"column\"}], \"op\": \"isNull\"}"));
+    assertNotEquals(tag, query(1L, IS_NULL));
+    assertNotEquals(
+        tag, TableEntityTags.metadata("share", "schema", "table", 0L, ResponseFormat.parquet));
+  }
+
+  @Test
+  void matchIfNoneMatch() {
+    var tag = TableEntityTags.metadata("share", "schema", "table", 0L, ResponseFormat.parquet);
+    // the same tag is sent for all the encodings of the response
+    assertTrue(tag.isWeak());
+    var quoted = "\"" + tag.getValue() + "\"";
+    assertTrue(TableEntityTags.matches(quoted, tag));
+    assertTrue(TableEntityTags.matches("\"other\", W/" + quoted, tag));
+    assertTrue(TableEntityTags.matches("*", tag));
+    assertFalse(TableEntityTags.matches("\"other\"", tag));
+    assertFalse(TableEntityTags.matches(null, tag));
+  }
+
+  @Test
+  void matchQueryOnlyWhileItsUrlsAreValid() {
+    var queryTag = query(0L, IS_NULL);
+    var refreshBefore = Instant.parse("2024-05-01T12:00:00Z");
+    var tag = TableEntityTags.withRefreshUrlsBefore(queryTag, refreshBefore);
+    var ifNoneMatch = "W/\"" + tag.getValue() + "\"";
+    assertEquals(
+        Optional.of(tag),
+        TableEntityTags.matchingQuery(ifNoneMatch, queryTag, refreshBefore.minusSeconds(1)));
+    assertEquals(Optional.of(refreshBefore), TableEntityTags.refreshUrlsBefore(tag));
+    assertEquals(
+        Optional.empty(), TableEntityTags.matchingQuery(ifNoneMatch, queryTag, refreshBefore));
+    // responses without URLs to refresh are matched by their tag alone
+    assertEquals(
+        Optional.of(queryTag),
+        TableEntityTags.matchingQuery("\"" + queryTag.getValue() + "\"", queryTag, refreshBefore));
+    assertEquals(Optional.empty(), TableEntityTags.matchingQuery("*", queryTag, refreshBefore));
+  }
+
+  private static EntityTag query(long version, String jsonPredicate) {
+    return TableEntityTags.query(
+        "share",
+        "schema",
+        "table",
+        version,
+        ReadTableHints.of(new ReadTableRequest.ReadTableCurrentVersion(
+            Optional.of(List.of("id = 1")), Optional.of(jsonPredicate), Optional.empty())),
+        ResponseFormat.parquet);
+  }
+}
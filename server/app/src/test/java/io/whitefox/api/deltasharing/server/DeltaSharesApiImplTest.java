@@ -8,6 +8,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.ZstdInputStream;
 import io.quarkus.test.junit.QuarkusMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.Header;
@@ -23,7 +24,9 @@ import io.whitefox.core.services.ContentAndToken;
 import io.whitefox.persistence.StorageManager;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -481,6 +484,193 @@ public class DeltaSharesApiImplTest implements OpenApiValidatorUtils {
     assertEquals(deltaTable1FilesWithoutPresignedUrl, files); // TOD
   }
 
+  @DisabledOnOs(OS.WINDOWS)
+  @Test
+  public void queryTableNotModified() {
+    var entityTag = given()
+        .when()
+        .body("{\"predicateHints\": [\"id > 1\"]}")
+        .header(new Header("Content-Type", "application/json"))
+        .post(
+            "delta-api/v1/shares/{share}/schemas/{schema}/tables/{table}/query",
+            "name",
+            "default",
+            "table1")
+        .then()
+        .statusCode(200)
+        .extract()
+        .header("ETag");
+    given()
+        .when()
+        .body("{\"predicateHints\": [\" id > 1 \"]}")
+        .header(new Header("Content-Type", "application/json"))
+        .header(new Header("If-None-Match", entityTag))
+        .post(
+            "delta-api/v1/shares/{share}/schemas/{schema}/tables/{table}/query",
+            "name",
+            "default",
+            "table1")
+        .then()
+        .statusCode(304)
+        .header("ETag", entityTag)
+        .header("Delta-Table-Version", "0");
+    // different hints are a different response
+    given()
+        .when()
+        .body("{\"predicateHints\": [\"id > 2\"]}")
+        .header(new Header("Content-Type", "application/json"))
+        .header(new Header("If-None-Match", entityTag))
+        .post(
+            "delta-api/v1/shares/{share}/schemas/{schema}/tables/{table}/query",
+            "name",
+            "default",
+            "table1")
+        .then()
+        .statusCode(200);
+  }
+
+  @DisabledOnOs(OS.WINDOWS)
+  @Test
+  public void queryTableVersionNotModified() {
+    var entityTag = given()
+        .when()
+        .body("{\"version\": 0}")
+        .header(new Header("Content-Type", "application/json"))
+        .post(
+            "delta-api/v1/shares/{share}/schemas/{schema}/tables/{table}/query",
+            "name",
+            "default",
+            "table1")
+        .then()
+        .statusCode(200)
+        .extract()
+        .header("ETag");
+    // the tag of the response is the one resolved from the requested version
+    given()
+        .when()
+        .body("{\"version\": 0}")
+        .header(new Header("Content-Type", "application/json"))
+        .header(new Header("If-None-Match", entityTag))
+        .post(
+            "delta-api/v1/shares/{share}/schemas/{schema}/tables/{table}/query",
+            "name",
+            "default",
+            "table1")
+        .then()
+        .statusCode(304)
+        .header("ETag", entityTag);
+  }
+
+  @DisabledOnOs(OS.WINDOWS)
+  @Test
+  public void refreshFilesOfQueriedVersion() throws IOException {
+    var responseBodyLines = given()
+        .when()
+        .filter(deltaFilter)
+        .body("{}")
+        .header(new Header("Content-Type", "application/json"))
+        .post(
+            "delta-api/v1/shares/{share}/schemas/{schema}/tables/{table}/query",
+            "name",
+            "default",
+            "table1")
+        .then()
+        .statusCode(200)
+        .extract()
+        .body()
+        .asString()
+        .split("\n");
+    var file = objectMapper.readTree(responseBodyLines[2]).get("file");
+    var id = file.get("id").asText();
+    given()
+        .when()
+        .filter(deltaFilter)
+        .body(objectMapper.writeValueAsString(
+            Map.of("version", 0, "ids", List.of(id, "not-queried"))))
+        .header(new Header("Content-Type", "application/json"))
+        .post(
+            "delta-api/v1/shares/{share}/schemas/{schema}/tables/{table}/files/refresh",
+            "name",
+            "default",
+            "table1")
+        .then()
+        .statusCode(200)
+        .body("files.size()", is(1))
+        .body("files[0].id", is(id))
+        .body("files[0].url", is(file.get("url").asText()));
+    // the files of versions that were not queried are not known
+    given()
+        .when()
+        .filter(deltaFilter)
+        .body(objectMapper.writeValueAsString(Map.of("version", 1, "ids", List.of(id))))
+        .header(new Header("Content-Type", "application/json"))
+        .post(
+            "delta-api/v1/shares/{share}/schemas/{schema}/tables/{table}/files/refresh",
+            "name",
+            "default",
+            "table1")
+        .then()
+        .statusCode(200)
+        .body("files.size()", is(0));
+  }
+
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  public void deltaTableMetadataNotModified() {
+    var entityTag = given()
+        .when()
+        .get(
+            "delta-api/v1/shares/{share}/schemas/{schema}/tables/{table}/metadata",
+            "name",
+            "default",
+            "table1")
+        .then()
+        .statusCode(200)
+        .extract()
+        .header("ETag");
+    given()
+        .when()
+        .header(new Header("If-None-Match", entityTag))
+        .get(
+            "delta-api/v1/shares/{share}/schemas/{schema}/tables/{table}/metadata",
+            "name",
+            "default",
+            "table1")
+        .then()
+        .statusCode(304)
+        .header("Delta-Table-Version", "0");
+  }
+
+  @DisabledOnOs(OS.WINDOWS)
+  @Test
+  public void queryTableCompressed() throws IOException {
+    var compressed = given()
+        .when()
+        .body("{}")
+        .header(new Header("Content-Type", "application/json"))
+        .header(new Header("Accept-Encoding", "zstd"))
+        .post(
+            "delta-api/v1/shares/{share}/schemas/{schema}/tables/{table}/query",
+            "name",
+            "default",
+            "table1")
+        .then()
+        .statusCode(200)
+        .header("Content-Encoding", "zstd")
+        .header("Vary", containsString("Accept-Encoding"))
+        .extract()
+        .body()
+        .asByteArray();
+    try (var decompressed = new ZstdInputStream(new ByteArrayInputStream(compressed))) {
+      var responseBodyLines =
+          new String(decompressed.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+      assertEquals(7, responseBodyLines.length);
+      assertEquals(
+          deltaTable1Protocol,
+          objectMapper.reader().readValue(responseBodyLines[0], ParquetProtocol.class));
+    }
+  }
+
   @DisabledOnOs(OS.WINDOWS)
   @Test
   public void queryTableByVersion() throws IOException {
@@ -0,0 +1,36 @@
+package io.whitefox.api.deltasharing.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+public class ResponseCompressionFilterTest {
+
+  @Test
+  void negotiateSupportedEncodings() {
+    assertEquals(Optional.of("gzip"), ResponseCompressionFilter.negotiate("gzip, deflate"));
+    assertEquals(Optional.of("zstd"), ResponseCompressionFilter.negotiate("gzip, zstd, br"));
+    assertEquals(Optional.of("gzip"), ResponseCompressionFilter.negotiate("zstd;q=0.5, gzip"));
+    assertEquals(Optional.of("zstd"), ResponseCompressionFilter.negotiate("*"));
+  }
+
+  @Test
+  void leaveUncompressedWhenNotAccepted() {
+    assertEquals(Optional.empty(), ResponseCompressionFilter.negotiate(null));
+    assertEquals(Optional.empty(), ResponseCompressionFilter.negotiate("identity"));
+    assertEquals(Optional.empty(), ResponseCompressionFilter.negotiate("gzip;q=0, br"));
+    assertEquals(Optional.empty(), ResponseCompressionFilter.negotiate("*;q=0"));
+  }
+
+  @Test
+  void measureStringsInUtf8Bytes() {
+    assertEquals(6, ResponseCompressionFilter.knownSize("fox ñ"));
+    assertEquals(6, ResponseCompressionFilter.knownSize("狐狸"));
+    assertEquals(4, ResponseCompressionFilter.knownSize("\uD83E\uDD8A"));
+    assertEquals(
+        "狐狸 🦊".getBytes(StandardCharsets.UTF_8).length,
+        ResponseCompressionFilter.knownSize("狐狸 🦊"));
+  }
+}
@@ -16,6 +16,7 @@ dependencies {
     implementation(enforcedPlatform("${quarkusPlatformGroupId}:${quarkusPlatformArtifactId}:${quarkusPlatformVersion}"))
     // QUARKUS
     compileOnly("jakarta.enterprise:jakarta.enterprise.cdi-api")
+    compileOnly("jakarta.annotation:jakarta.annotation-api")
     compileOnly("jakarta.ws.rs:jakarta.ws.rs-api")
     compileOnly("org.eclipse.microprofile.config:microprofile-config-api")
 
@@ -46,6 +47,9 @@ dependencies {
     //PREDICATE PARSER
     implementation("com.github.jsqlparser:jsqlparser")
 
+    //CACHING
+    api("com.github.ben-manes.caffeine:caffeine")
+
     // TEST
     testImplementation("org.junit.jupiter:junit-jupiter")
     testImplementation("io.quarkus:quarkus-arc")
@@ -1,28 +1,113 @@
 package io.whitefox.core;
 
-import io.whitefox.annotations.SkipCoverageGenerated;
 import io.whitefox.core.types.*;
+import io.whitefox.core.types.predicates.PredicateException;
+import io.whitefox.core.types.predicates.TypeMismatchException;
 import io.whitefox.core.types.predicates.TypeNotSupportedException;
+import io.whitefox.core.types.predicates.TypeValidationException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.sql.Timestamp;
+import java.util.Arrays;
 
-public class ColumnRange {
+/**
+ * Range of the values of a column, or a single value when min and max are the same.
+ * <p>
+ * Values are parsed once, when the range is created, into a representation that can be compared
+ * without allocating: longs for integers, dates (as days since epoch) and timestamps (as
+ * microseconds since epoch), doubles for floating point numbers and UTF-8 bytes for strings.
+ * Ranges whose values are missing or cannot be parsed cannot be compared, so that predicates on
+ * them fail and their files are kept.
+ */
+public abstract class ColumnRange {
 
-  String minVal;
-  String maxVal;
+  final String minVal;
+  final String maxVal;
 
-  DataType valueType;
+  final DataType valueType;
 
-  public ColumnRange(String minVal, String maxVal, DataType valueType) {
+  private ColumnRange(String minVal, String maxVal, DataType valueType) {
     this.minVal = minVal;
     this.maxVal = maxVal;
     this.valueType = valueType;
   }
 
-  public ColumnRange(String onlyVal, DataType valueType) {
-    this.minVal = onlyVal;
-    this.maxVal = onlyVal;
-    this.valueType = valueType;
+  public static ColumnRange of(String minVal, String maxVal, DataType valueType) {
+    if (minVal == null || maxVal == null) {
+      return new InvalidRange(minVal, maxVal, valueType);
+    }
+    try {
+      if (valueType instanceof IntegerType || valueType instanceof LongType) {
+        return new LongRange(
+            minVal, maxVal, valueType, Long.parseLong(minVal), Long.parseLong(maxVal));
+      } else if (valueType instanceof DateType) {
+        return new LongRange(minVal, maxVal, valueType, epochDay(minVal), epochDay(maxVal));
+      } else if (valueType instanceof TimestampType) {
+        return new LongRange(minVal, maxVal, valueType, epochMicros(minVal), epochMicros(maxVal));
+      } else if (valueType instanceof FloatType) {
+        return new DoubleRange(
+            minVal, maxVal, valueType, Float.parseFloat(minVal), Float.parseFloat(maxVal));
+      } else if (valueType instanceof DoubleType) {
+        return new DoubleRange(
+            minVal, maxVal, valueType, Double.parseDouble(minVal), Double.parseDouble(maxVal));
+      } else if (valueType instanceof BooleanType) {
+        return new BooleanRange(
+            minVal, maxVal, valueType, Boolean.parseBoolean(minVal), Boolean.parseBoolean(maxVal));
+      } else if (valueType instanceof StringType) {
+        return new StringRange(minVal, maxVal, valueType);
+      } else {
+        return new UnsupportedRange(minVal, maxVal, valueType);
+      }
+    } catch (IllegalArgumentException e) {
+      return new InvalidRange(minVal, maxVal, valueType);
+    }
+  }
+
+  public static ColumnRange of(String onlyVal, DataType valueType) {
+    return of(onlyVal, onlyVal, valueType);
+  }
+
+  /**
+   * Builds the range of an integral column out of already parsed values.
+   */
+  public static ColumnRange of(long minVal, long maxVal, DataType valueType) {
+    if (valueType instanceof IntegerType || valueType instanceof LongType) {
+      return new LongRange(
+          String.valueOf(minVal), String.valueOf(maxVal), valueType, minVal, maxVal);
+    } else if (valueType instanceof FloatType || valueType instanceof DoubleType) {
+      return of((double) minVal, (double) maxVal, valueType);
+    } else {
+      return of(String.valueOf(minVal), String.valueOf(maxVal), valueType);
+    }
+  }
+
+  /**
+   * Builds the range of a floating point column out of already parsed values.
+   */
+  public static ColumnRange of(double minVal, double maxVal, DataType valueType) {
+    if (valueType instanceof FloatType) {
+      // compared with float literals, which are not exactly representable as doubles
+      return new DoubleRange(
+          String.valueOf((float) minVal),
+          String.valueOf((float) maxVal),
+          valueType,
+          (float) minVal,
+          (float) maxVal);
+    } else if (valueType instanceof DoubleType) {
+      return new DoubleRange(
+          String.valueOf(minVal), String.valueOf(maxVal), valueType, minVal, maxVal);
+    } else {
+      return of(String.valueOf(minVal), String.valueOf(maxVal), valueType);
+    }
+  }
+
+  private static long epochDay(String date) {
+    return Date.valueOf(date).toLocalDate().toEpochDay();
+  }
+
+  private static long epochMicros(String timestamp) {
+    var ts = Timestamp.valueOf(timestamp);
+    return Math.floorDiv(ts.getTime(), 1000L) * 1_000_000L + ts.getNanos() / 1000;
   }
 
   public DataType getValueType() {
@@ -33,100 +118,218 @@ public class ColumnRange {
     return minVal;
   }
 
-  private Boolean typedContains(String point) throws TypeNotSupportedException {
-    if (valueType instanceof IntegerType) {
-      var c1 = Integer.compare(Integer.parseInt(minVal), Integer.parseInt(point));
-      var c2 = Integer.compare(Integer.parseInt(maxVal), Integer.parseInt(point));
-      return (c1 <= 0 && c2 >= 0);
-    } else if (valueType instanceof LongType) {
-      var c1 = Long.compare(Long.parseLong(minVal), Long.parseLong(point));
-      var c2 = Long.compare(Long.parseLong(maxVal), Long.parseLong(point));
-      return (c1 <= 0 && c2 >= 0);
-    } else if (valueType instanceof TimestampType) {
-      var c1 = Timestamp.valueOf(minVal).before(Timestamp.valueOf(point));
-      var c2 = Timestamp.valueOf(maxVal).after(Timestamp.valueOf(point));
-      return (c1 && c2) || Timestamp.valueOf(minVal).equals(Timestamp.valueOf(point));
-    } else if (valueType instanceof FloatType) {
-      var c1 = Float.compare(Float.parseFloat(minVal), Float.parseFloat(point));
-      var c2 = Float.compare(Float.parseFloat(maxVal), Float.parseFloat(point));
-      return (c1 <= 0 && c2 >= 0);
-    } else if (valueType instanceof DoubleType) {
-      var c1 = Double.compare(Double.parseDouble(minVal), Double.parseDouble(point));
-      var c2 = Double.compare(Double.parseDouble(maxVal), Double.parseDouble(point));
-      return (c1 <= 0 && c2 >= 0);
-    } else if (valueType instanceof DateType) {
-      var c1 = Date.valueOf(minVal).before(Date.valueOf(point));
-      var c2 = Date.valueOf(maxVal).after(Date.valueOf(point));
-      return (c1 && c2) || Date.valueOf(minVal).equals(Date.valueOf(point));
-    } else if (valueType instanceof BooleanType) {
-      var c1 = Boolean.parseBoolean(minVal) == Boolean.parseBoolean(point);
-      var c2 = Boolean.parseBoolean(maxVal) == Boolean.parseBoolean(point);
-      return c1 || c2;
-    } else if (valueType instanceof StringType) {
-      var c1 = minVal.compareTo(point);
-      var c2 = maxVal.compareTo(point);
-      return (c1 <= 0 && c2 >= 0);
-    } else throw new TypeNotSupportedException(valueType);
-  }
-
-  private Boolean typedLessThan(String point) throws TypeNotSupportedException {
-    if (valueType instanceof IntegerType) {
-      var c1 = Integer.compare(Integer.parseInt(minVal), Integer.parseInt(point));
-      return (c1 < 0);
-    } else if (valueType instanceof LongType) {
-      var c1 = Long.compare(Long.parseLong(minVal), Long.parseLong(point));
-      return (c1 < 0);
-    } else if (valueType instanceof TimestampType) {
-      return Timestamp.valueOf(minVal).before(Timestamp.valueOf(point));
-    } else if (valueType instanceof FloatType) {
-      var c1 = Float.compare(Float.parseFloat(minVal), Float.parseFloat(point));
-      return (c1 < 0);
-    } else if (valueType instanceof DoubleType) {
-      var c1 = Double.compare(Double.parseDouble(minVal), Double.parseDouble(point));
-      return (c1 < 0);
-    } else if (valueType instanceof DateType) {
-      return Date.valueOf(minVal).before(Date.valueOf(point));
-    } else if (valueType instanceof StringType) {
-      var c = minVal.compareTo(point);
-      return (c < 0);
-    } else throw new TypeNotSupportedException(valueType);
-  }
-
-  // not used currently
-  @SkipCoverageGenerated
-  private Boolean typedGreaterThan(String point) {
-    if (valueType instanceof IntegerType) {
-      var c = Integer.compare(Integer.parseInt(point), Integer.parseInt(maxVal));
-      return (c < 0);
-    } else if (valueType instanceof LongType) {
-      var c = Long.compare(Long.parseLong(point), Long.parseLong(maxVal));
-      return (c < 0);
-    } else if (valueType instanceof TimestampType) {
-      return Timestamp.valueOf(point).before(Timestamp.valueOf(maxVal));
-    } else if (valueType instanceof FloatType) {
-      var c = Float.compare(Float.parseFloat(maxVal), Float.parseFloat(point));
-      return (c < 0);
-    } else if (valueType instanceof DoubleType) {
-      var c = Double.compare(Double.parseDouble(maxVal), Double.parseDouble(point));
-      return (c < 0);
-    } else if (valueType instanceof DateType) {
-      return Date.valueOf(point).before(Date.valueOf(maxVal));
+  /**
+   * Returns whether the single value of {@code point} may be in this range.
+   */
+  public abstract boolean contains(ColumnRange point) throws PredicateException;
 
-    } else {
-      var c = point.compareTo(maxVal);
-      return (c < 0);
+  /**
+   * Returns whether some value of this range may be less than the single value of {@code point}.
+   */
+  public abstract boolean canBeLess(ColumnRange point) throws PredicateException;
+
+  /**
+   * Returns whether some value of this range may be greater than the single value of
+   * {@code point}.
+   */
+  public abstract boolean canBeGreater(ColumnRange point) throws PredicateException;
+
+  public Boolean contains(String point) throws PredicateException {
+    return contains(of(point, valueType));
+  }
+
+  public Boolean canBeLess(String point) throws PredicateException {
+    return canBeLess(of(point, valueType));
+  }
+
+  public Boolean canBeGreater(String point) throws PredicateException {
+    return canBeGreater(of(point, valueType));
+  }
+
+  private static TypeMismatchException mismatch(ColumnRange range, ColumnRange point) {
+    return new TypeMismatchException(range.valueType, point.valueType);
+  }
+
+  private static final class LongRange extends ColumnRange {
+    private final long min;
+    private final long max;
+
+    private LongRange(String minVal, String maxVal, DataType valueType, long min, long max) {
+      super(minVal, maxVal, valueType);
+      this.min = min;
+      this.max = max;
+    }
+
+    private long value(ColumnRange point) throws TypeMismatchException {
+      if (!(point instanceof LongRange) || !valueType.equals(point.valueType)) {
+        throw mismatch(this, point);
+      }
+      return ((LongRange) point).min;
+    }
+
+    @Override
+    public boolean contains(ColumnRange point) throws PredicateException {
+      var value = value(point);
+      return min <= value && max >= value;
+    }
+
+    @Override
+    public boolean canBeLess(ColumnRange point) throws PredicateException {
+      return min < value(point);
+    }
+
+    @Override
+    public boolean canBeGreater(ColumnRange point) throws PredicateException {
+      return max > value(point);
     }
   }
 
-  public Boolean contains(String point) throws TypeNotSupportedException {
-    return typedContains(point);
+  private static final class DoubleRange extends ColumnRange {
+    private final double min;
+    private final double max;
+
+    private DoubleRange(String minVal, String maxVal, DataType valueType, double min, double max) {
+      super(minVal, maxVal, valueType);
+      this.min = min;
+      this.max = max;
+    }
+
+    private double value(ColumnRange point) throws TypeMismatchException {
+      if (!(point instanceof DoubleRange) || !valueType.equals(point.valueType)) {
+        throw mismatch(this, point);
+      }
+      return ((DoubleRange) point).min;
+    }
+
+    @Override
+    public boolean contains(ColumnRange point) throws PredicateException {
+      var value = value(point);
+      return Double.compare(min, value) <= 0 && Double.compare(max, value) >= 0;
+    }
+
+    @Override
+    public boolean canBeLess(ColumnRange point) throws PredicateException {
+      return Double.compare(min, value(point)) < 0;
+    }
+
+    @Override
+    public boolean canBeGreater(ColumnRange point) throws PredicateException {
+      return Double.compare(max, value(point)) > 0;
+    }
+  }
+
+  private static final class BooleanRange extends ColumnRange {
+    private final boolean min;
+    private final boolean max;
+
+    private BooleanRange(
+        String minVal, String maxVal, DataType valueType, boolean min, boolean max) {
+      super(minVal, maxVal, valueType);
+      this.min = min;
+      this.max = max;
+    }
+
+    @Override
+    public boolean contains(ColumnRange point) throws PredicateException {
+      if (!(point instanceof BooleanRange)) {
+        throw mismatch(this, point);
+      }
+      var value = ((BooleanRange) point).min;
+      return min == value || max == value;
+    }
+
+    @Override
+    public boolean canBeLess(ColumnRange point) throws PredicateException {
+      throw new TypeNotSupportedException(valueType);
+    }
+
+    @Override
+    public boolean canBeGreater(ColumnRange point) throws PredicateException {
+      throw new TypeNotSupportedException(valueType);
+    }
+  }
+
+  /**
+   * Compares the UTF-8 bytes of the values as unsigned, which is the order of the code points and
+   * the one used by parquet for its statistics.
+   */
+  private static final class StringRange extends ColumnRange {
+    private final byte[] min;
+    private final byte[] max;
+
+    private StringRange(String minVal, String maxVal, DataType valueType) {
+      super(minVal, maxVal, valueType);
+      this.min = minVal.getBytes(StandardCharsets.UTF_8);
+      this.max = maxVal.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] value(ColumnRange point) throws TypeMismatchException {
+      if (!(point instanceof StringRange)) {
+        throw mismatch(this, point);
+      }
+      return ((StringRange) point).min;
+    }
+
+    @Override
+    public boolean contains(ColumnRange point) throws PredicateException {
+      var value = value(point);
+      return Arrays.compareUnsigned(min, value) <= 0 && Arrays.compareUnsigned(max, value) >= 0;
+    }
+
+    @Override
+    public boolean canBeLess(ColumnRange point) throws PredicateException {
+      return Arrays.compareUnsigned(min, value(point)) < 0;
+    }
+
+    @Override
+    public boolean canBeGreater(ColumnRange point) throws PredicateException {
+      return Arrays.compareUnsigned(max, value(point)) > 0;
+    }
   }
 
-  public Boolean canBeLess(String point) throws TypeNotSupportedException {
-    return typedLessThan(point);
+  private static final class InvalidRange extends ColumnRange {
+    private InvalidRange(String minVal, String maxVal, DataType valueType) {
+      super(minVal, maxVal, valueType);
+    }
+
+    private TypeValidationException invalid() {
+      return new TypeValidationException("[" + minVal + ", " + maxVal + "]", valueType);
+    }
+
+    @Override
+    public boolean contains(ColumnRange point) throws PredicateException {
+      throw invalid();
+    }
+
+    @Override
+    public boolean canBeLess(ColumnRange point) throws PredicateException {
+      throw invalid();
+    }
+
+    @Override
+    public boolean canBeGreater(ColumnRange point) throws PredicateException {
+      throw invalid();
+    }
   }
 
-  public Boolean canBeGreater(String point) {
-    return typedGreaterThan(point);
+  private static final class UnsupportedRange extends ColumnRange {
+    private UnsupportedRange(String minVal, String maxVal, DataType valueType) {
+      super(minVal, maxVal, valueType);
+    }
+
+    @Override
+    public boolean contains(ColumnRange point) throws PredicateException {
+      throw new TypeNotSupportedException(valueType);
+    }
+
+    @Override
+    public boolean canBeLess(ColumnRange point) throws PredicateException {
+      throw new TypeNotSupportedException(valueType);
+    }
+
+    @Override
+    public boolean canBeGreater(ColumnRange point) throws PredicateException {
+      throw new TypeNotSupportedException(valueType);
+    }
   }
 }
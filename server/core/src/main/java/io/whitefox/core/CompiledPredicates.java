@@ -0,0 +1,91 @@
+package io.whitefox.core;
+
+import io.whitefox.core.types.predicates.BaseOp;
+import io.whitefox.core.types.predicates.EvalContext;
+import io.whitefox.core.types.predicates.PartitionIndex;
+import io.whitefox.core.types.predicates.PredicateException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import org.apache.log4j.Logger;
+
+/**
+ * The predicate hints of a query, parsed, validated and typed against the table schema once per
+ * query, then evaluated on each of its files.
+ * <p>
+ * A predicate that cannot be compiled keeps every file, a predicate that cannot be evaluated on a
+ * file keeps that file.
+ */
+public class CompiledPredicates {
+
+  private static final Logger logger = Logger.getLogger(CompiledPredicates.class);
+
+  private final List<BaseOp> predicates;
+
+  private CompiledPredicates(List<BaseOp> predicates) {
+    this.predicates = predicates;
+  }
+
+  public static CompiledPredicates compile(
+      Optional<String> jsonPredicate, Optional<List<String>> sqlPredicates, Metadata metadata) {
+    var predicates = new ArrayList<BaseOp>();
+    if (jsonPredicate.isPresent()) {
+      try {
+        predicates.add(PredicateUtils.compileJsonPredicate(jsonPredicate.get()));
+      } catch (PredicateException e) {
+        logSkipped(jsonPredicate.get(), e);
+      }
+    }
+    if (sqlPredicates.isPresent()) {
+      for (String sqlPredicate : sqlPredicates.get()) {
+        try {
+          predicates.add(PredicateUtils.compileSqlPredicate(sqlPredicate, metadata));
+        } catch (PredicateException e) {
+          logSkipped(sqlPredicate, e);
+        }
+      }
+    }
+    return new CompiledPredicates(List.copyOf(predicates));
+  }
+
+  private static void logSkipped(String predicate, PredicateException e) {
+    logger.info("All files will be used in processing due to failure in parsing the predicate: "
+        + predicate + " - " + e.getMessage());
+  }
+
+  public boolean isEmpty() {
+    return predicates.isEmpty();
+  }
+
+  public List<BaseOp> predicates() {
+    return predicates;
+  }
+
+  /**
+   * Returns whether the file of {@code ctx} can hold rows matching all the predicates.
+   */
+  public boolean test(EvalContext ctx, String path) {
+    for (BaseOp predicate : predicates) {
+      try {
+        if (!predicate.evalExpectBoolean(ctx)) {
+          return false;
+        }
+      } catch (PredicateException e) {
+        logger.debug("File: " + path
+            + " will be used in processing due to failure in processing the predicate: "
+            + predicate + " - " + e.getMessage());
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Narrows down the files to test by looking up their partition values.
+   */
+  public BitSet candidates(PartitionIndex partitionIndex) {
+    var candidates = partitionIndex.all();
+    predicates.forEach(predicate -> candidates.and(partitionIndex.candidates(predicate)));
+    return candidates;
+  }
+}
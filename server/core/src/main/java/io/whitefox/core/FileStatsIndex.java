@@ -0,0 +1,290 @@
+package io.whitefox.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.whitefox.core.types.DataType;
+import io.whitefox.core.types.predicates.NonExistingColumnException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Column oriented view of the statistics of the files of a table snapshot.
+ * <p>
+ * The JSON statistics of every file are parsed once, then the min and max values of each column
+ * are stored in arrays indexed by the position of the file in the snapshot, using primitive
+ * arrays for numeric columns. Files whose statistics are missing or cannot be parsed have no
+ * statistics at all, so predicates cannot be evaluated on them and the files are kept.
+ * <p>
+ * The typed {@link ColumnRange}s of a column are built for all the files the first time the column
+ * is looked up with a given type, then shared by every evaluation on the snapshot.
+ */
+public class FileStatsIndex {
+
+  private static final ObjectMapper objectMapper = DeltaObjectMapper.getInstance();
+
+  private final int size;
+  private final long[] numRecords;
+  private final BitSet hasNumRecords;
+  private final Map<String, ColumnStats> columns;
+
+  private FileStatsIndex(
+      int size, long[] numRecords, BitSet hasNumRecords, Map<String, ColumnStats> columns) {
+    this.size = size;
+    this.numRecords = numRecords;
+    this.hasNumRecords = hasNumRecords;
+    this.columns = columns;
+  }
+
+  /**
+   * Builds the index out of the JSON statistics of each file, e.g.
+   * {@code {"numRecords":1,"minValues":{"id":0},"maxValues":{"id":0},"nullCount":{"id":0}}}.
+   */
+  public static FileStatsIndex of(List<String> stats) {
+    var size = stats.size();
+    var numRecords = new long[size];
+    var hasNumRecords = new BitSet(size);
+    var builders = new HashMap<String, ColumnStatsBuilder>();
+    for (int file = 0; file < size; file++) {
+      var fileStats = parse(stats.get(file));
+      if (fileStats == null) {
+        continue;
+      }
+      if (fileStats.getNumRecords() != null) {
+        numRecords[file] = fileStats.getNumRecords();
+        hasNumRecords.set(file);
+      }
+      if (fileStats.getMinValues() != null) {
+        var maxValues = fileStats.getMaxValues() == null
+            ? Map.<String, Object>of()
+            : fileStats.getMaxValues();
+        var nullCounts =
+            fileStats.getNullCount() == null ? Map.<String, Long>of() : fileStats.getNullCount();
+        for (var min : fileStats.getMinValues().entrySet()) {
+          builders
+              .computeIfAbsent(min.getKey(), k -> new ColumnStatsBuilder(size))
+              .add(file, min.getValue(), maxValues.get(min.getKey()), nullCounts.get(min.getKey()));
+        }
+      }
+    }
+    return new FileStatsIndex(
+        size,
+        numRecords,
+        hasNumRecords,
+        builders.entrySet().stream()
+            .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> e.getValue().build())));
+  }
+
+  /**
+   * Builds the index of a single file out of its already parsed min and max values.
+   */
+  public static FileStatsIndex of(Map<String, Pair<String, String>> minMaxValues) {
+    var columns = new HashMap<String, ColumnStats>();
+    minMaxValues.forEach((column, minMax) -> {
+      var present = new BitSet(1);
+      present.set(0);
+      columns.put(
+          column,
+          new StringColumnStats(
+              present,
+              new long[] {-1L},
+              new String[] {minMax.getLeft()},
+              new String[] {minMax.getRight()}));
+    });
+    return new FileStatsIndex(1, new long[1], new BitSet(1), Map.copyOf(columns));
+  }
+
+  private static FileStats parse(String stats) {
+    if (stats == null) {
+      return null;
+    }
+    try {
+      return objectMapper.readValue(stats, FileStats.class);
+    } catch (JsonProcessingException e) {
+      return null;
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public OptionalLong numRecords(int file) {
+    return hasNumRecords.get(file) ? OptionalLong.of(numRecords[file]) : OptionalLong.empty();
+  }
+
+  public OptionalLong nullCount(String column, int file) {
+    var columnStats = columns.get(column);
+    if (columnStats == null
+        || !columnStats.present.get(file)
+        || columnStats.nullCounts[file] < 0) {
+      return OptionalLong.empty();
+    }
+    return OptionalLong.of(columnStats.nullCounts[file]);
+  }
+
+  public boolean hasStats(String column, int file) {
+    var columnStats = columns.get(column);
+    return columnStats != null && columnStats.present.get(file);
+  }
+
+  public Set<String> columns(int file) {
+    return columns.entrySet().stream()
+        .filter(e -> e.getValue().present.get(file))
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toSet());
+  }
+
+  public ColumnRange columnRange(String column, int file, DataType valueType)
+      throws NonExistingColumnException {
+    var columnStats = columns.get(column);
+    if (columnStats == null || !columnStats.present.get(file)) {
+      throw new NonExistingColumnException(column);
+    }
+    return columnStats.range(file, valueType);
+  }
+
+  private abstract static class ColumnStats {
+    final BitSet present;
+    final long[] nullCounts;
+    private final Map<DataType, ColumnRange[]> ranges = new ConcurrentHashMap<>();
+
+    ColumnStats(BitSet present, long[] nullCounts) {
+      this.present = present;
+      this.nullCounts = nullCounts;
+    }
+
+    ColumnRange range(int file, DataType valueType) {
+      return ranges.computeIfAbsent(valueType, this::ranges)[file];
+    }
+
+    private ColumnRange[] ranges(DataType valueType) {
+      var built = new ColumnRange[nullCounts.length];
+      present.stream().forEach(file -> built[file] = newRange(file, valueType));
+      return built;
+    }
+
+    abstract ColumnRange newRange(int file, DataType valueType);
+  }
+
+  private static final class LongColumnStats extends ColumnStats {
+    private final long[] min;
+    private final long[] max;
+
+    LongColumnStats(BitSet present, long[] nullCounts, long[] min, long[] max) {
+      super(present, nullCounts);
+      this.min = min;
+      this.max = max;
+    }
+
+    @Override
+    ColumnRange newRange(int file, DataType valueType) {
+      return ColumnRange.of(min[file], max[file], valueType);
+    }
+  }
+
+  private static final class DoubleColumnStats extends ColumnStats {
+    private final double[] min;
+    private final double[] max;
+
+    DoubleColumnStats(BitSet present, long[] nullCounts, double[] min, double[] max) {
+      super(present, nullCounts);
+      this.min = min;
+      this.max = max;
+    }
+
+    @Override
+    ColumnRange newRange(int file, DataType valueType) {
+      return ColumnRange.of(min[file], max[file], valueType);
+    }
+  }
+
+  private static final class StringColumnStats extends ColumnStats {
+    private final String[] min;
+    private final String[] max;
+
+    StringColumnStats(BitSet present, long[] nullCounts, String[] min, String[] max) {
+      super(present, nullCounts);
+      this.min = min;
+      this.max = max;
+    }
+
+    @Override
+    ColumnRange newRange(int file, DataType valueType) {
+      return ColumnRange.of(min[file], max[file], valueType);
+    }
+  }
+
+  /**
+   * Collects the raw values of a column, then stores them in the narrowest representation that
+   * holds all of them: longs for integral values, doubles for other numbers and strings for
+   * anything else.
+   */
+  private static final class ColumnStatsBuilder {
+    private final BitSet present;
+    private final long[] nullCounts;
+    private final Object[] min;
+    private final Object[] max;
+    private boolean integral = true;
+    private boolean numeric = true;
+
+    ColumnStatsBuilder(int size) {
+      this.present = new BitSet(size);
+      this.nullCounts = new long[size];
+      this.min = new Object[size];
+      this.max = new Object[size];
+      Arrays.fill(nullCounts, -1L);
+    }
+
+    void add(int file, Object minValue, Object maxValue, Long nullCount) {
+      present.set(file);
+      min[file] = minValue;
+      max[file] = maxValue;
+      if (nullCount != null) {
+        nullCounts[file] = nullCount;
+      }
+      track(minValue);
+      track(maxValue);
+    }
+
+    private void track(Object value) {
+      integral = integral && (value instanceof Integer || value instanceof Long);
+      numeric = numeric && value instanceof Number;
+    }
+
+    ColumnStats build() {
+      if (integral) {
+        var mins = new long[min.length];
+        var maxs = new long[max.length];
+        present.stream().forEach(i -> {
+          mins[i] = ((Number) min[i]).longValue();
+          maxs[i] = ((Number) max[i]).longValue();
+        });
+        return new LongColumnStats(present, nullCounts, mins, maxs);
+      } else if (numeric) {
+        var mins = new double[min.length];
+        var maxs = new double[max.length];
+        present.stream().forEach(i -> {
+          mins[i] = ((Number) min[i]).doubleValue();
+          maxs[i] = ((Number) max[i]).doubleValue();
+        });
+        return new DoubleColumnStats(present, nullCounts, mins, maxs);
+      } else {
+        var mins = new String[min.length];
+        var maxs = new String[max.length];
+        present.stream().forEach(i -> {
+          mins[i] = String.valueOf(min[i]);
+          maxs[i] = String.valueOf(max[i]);
+        });
+        return new StringColumnStats(present, nullCounts, mins, maxs);
+      }
+    }
+  }
+}
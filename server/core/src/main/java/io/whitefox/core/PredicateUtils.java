@@ -5,21 +5,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.delta.standalone.actions.AddFile;
 import io.whitefox.core.types.DataType;
 import io.whitefox.core.types.predicates.*;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 import net.sf.jsqlparser.JSQLParserException;
 import net.sf.jsqlparser.expression.BinaryExpression;
 import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.expression.StringValue;
 import net.sf.jsqlparser.expression.operators.relational.IsNullExpression;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
-import org.apache.commons.lang3.tuple.Pair;
-import org.apache.log4j.Logger;
 
 public class PredicateUtils {
 
-  private static final Logger logger = Logger.getLogger(PredicateUtils.class);
-
   private static final ObjectMapper objectMapper = DeltaObjectMapper.getInstance();
 
   public static BaseOp parseJsonPredicate(String predicate) throws PredicateParsingException {
@@ -30,35 +26,24 @@ public class PredicateUtils {
     }
   }
 
-  public static boolean evaluateJsonPredicate(
-      Optional<String> predicate, EvalContext ctx, AddFile f) {
-    try {
-      if (predicate.isEmpty()) return true;
-      else {
-        var parsedPredicate = PredicateUtils.parseJsonPredicate(predicate.get());
-        return parsedPredicate.evalExpectBoolean(ctx);
-      }
-    } catch (PredicateException e) {
-      logger.debug("Caught exception for predicate: " + predicate + " - " + e.getMessage());
-      logger.info("File: " + f.getPath()
-          + " will be used in processing due to failure in parsing or processing the predicate: "
-          + predicate);
-      return true;
-    }
+  /**
+   * Parses and validates a JSON predicate, so that it can be evaluated on any number of files.
+   */
+  public static BaseOp compileJsonPredicate(String predicate) throws PredicateException {
+    var parsedPredicate = parseJsonPredicate(predicate);
+    parsedPredicate.validate();
+    return parsedPredicate;
   }
 
-  public static boolean evaluateSqlPredicate(
-      String predicate, EvalContext ctx, AddFile f, Metadata metadata) {
-    try {
-      var parsedPredicate = PredicateUtils.parseSqlPredicate(predicate, ctx, metadata);
-      return parsedPredicate.evalExpectBoolean(ctx);
-    } catch (PredicateException e) {
-      logger.debug("Caught exception for predicate: " + predicate + " - " + e.getMessage());
-      logger.info("File: " + f.getPath()
-          + " will be used in processing due to failure in parsing or processing the predicate: "
-          + predicate);
-      return true;
-    }
+  /**
+   * Parses a SQL predicate, resolving the types of its columns from the schema of
+   * {@code metadata}, and validates it, so that it can be evaluated on any number of files.
+   */
+  public static BaseOp compileSqlPredicate(String predicate, Metadata metadata)
+      throws PredicateException {
+    var parsedPredicate = parseSqlPredicate(predicate, null, metadata);
+    parsedPredicate.validate();
+    return parsedPredicate;
   }
 
   public static BaseOp parseSqlPredicate(String predicate, EvalContext ctx, Metadata metadata)
@@ -101,29 +86,13 @@ public class PredicateUtils {
 
   public static ColumnRange createColumnRange(String name, EvalContext ctx, DataType valueType)
       throws NonExistingColumnException {
-    var fileStats = ctx.getStatsValues();
-    var values = Optional.ofNullable(fileStats.get(name))
-        .orElseThrow(() -> new NonExistingColumnException(name));
-    return new ColumnRange(values.getLeft(), values.getRight(), valueType);
+    return ctx.getColumnRange(name, valueType);
   }
 
   public static EvalContext createEvalContext(AddFile file) throws PredicateParsingException {
-    var statsString = file.getStats();
-    var partitionValues = file.getPartitionValues();
-
-    try {
-      var fileStats = objectMapper.readValue(statsString, FileStats.class);
-      var maxValues = fileStats.getMaxValues();
-      var mappedMinMaxPairs = new java.util.HashMap<String, Pair<String, String>>();
-      fileStats.getMinValues().forEach((minK, minV) -> {
-        String maxV = String.valueOf(maxValues.get(minK));
-        Pair<String, String> minMaxPair = Pair.of(String.valueOf(minV), maxV);
-        mappedMinMaxPairs.put(minK, minMaxPair);
-      });
-      return new EvalContext(partitionValues, mappedMinMaxPairs);
-    } catch (JsonProcessingException e) {
-      // should never happen, depends on if the delta implementation changes
-      throw new PredicateParsingException(e);
-    }
+    return new EvalContext(
+        file.getPartitionValues(),
+        FileStatsIndex.of(Collections.singletonList(file.getStats())),
+        0);
   }
 }
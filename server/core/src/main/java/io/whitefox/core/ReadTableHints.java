@@ -0,0 +1,42 @@
+package io.whitefox.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * The hints of a {@link ReadTableRequest} in normalized form, equal for requests asking for the
+ * same files: JSON predicates are compared as trees, so formatting and key order do not matter,
+ * and SQL predicates, which are in conjunction, are compared regardless of their order.
+ */
+public record ReadTableHints(
+    Optional<String> jsonPredicate, Optional<List<String>> sqlPredicates, Optional<Long> limit) {
+
+  private static final ObjectWriter CANONICAL_JSON_WRITER =
+      DeltaObjectMapper.getInstance().writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+  public static ReadTableHints of(ReadTableRequest readTableRequest) {
+    return new ReadTableHints(
+        readTableRequest.jsonPredicateHints().map(ReadTableHints::normalizeJson),
+        readTableRequest
+            .predicateHints()
+            .map(predicates -> predicates.stream()
+                .map(String::trim)
+                .sorted()
+                .collect(Collectors.toUnmodifiableList())),
+        readTableRequest.limitHint());
+  }
+
+  private static String normalizeJson(String json) {
+    try {
+      return CANONICAL_JSON_WRITER.writeValueAsString(
+          DeltaObjectMapper.getInstance().readValue(json, Object.class));
+    } catch (JsonProcessingException e) {
+      // an invalid predicate is ignored when querying, the raw string is a good enough key
+      return json;
+    }
+  }
+}
@@ -7,6 +7,12 @@ import java.util.Optional;
 
 public interface ReadTableRequest {
 
+  Optional<List<String>> predicateHints();
+
+  Optional<String> jsonPredicateHints();
+
+  Optional<Long> limitHint();
+
   class ReadTableVersion implements ReadTableRequest {
     private final Optional<List<String>> predicateHints;
     private final Optional<String> jsonPredicateHints;
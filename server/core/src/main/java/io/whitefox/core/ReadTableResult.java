@@ -1,14 +1,22 @@
 package io.whitefox.core;
 
 import io.whitefox.core.services.capabilities.ResponseFormat;
-import java.util.List;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Stream;
 import lombok.Value;
 
+/**
+ * Result of a query, the {@code files} are signed lazily while the stream is consumed, so the
+ * stream has to be closed once done with it. The clients should refresh the URLs of the files
+ * before {@code refreshUrlsBefore}, when present.
+ */
 @Value
 public class ReadTableResult {
   Protocol protocol;
   Metadata metadata;
-  List<TableFile> files;
+  Stream<TableFile> files;
   long version;
   ResponseFormat responseFormat;
+  Optional<Instant> refreshUrlsBefore;
 }
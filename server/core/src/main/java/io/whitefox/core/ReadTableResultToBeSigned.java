@@ -1,12 +1,16 @@
 package io.whitefox.core;
 
-import java.util.List;
+import java.util.stream.Stream;
 import lombok.Value;
 
+/**
+ * Result of a query before signing, the files in {@code other} may be enumerated lazily from the
+ * table, so the stream has to be closed once done with it.
+ */
 @Value
 public class ReadTableResultToBeSigned {
   Protocol protocol;
   Metadata metadata;
-  List<TableFileToBeSigned> other;
+  Stream<TableFileToBeSigned> other;
   long version;
 }
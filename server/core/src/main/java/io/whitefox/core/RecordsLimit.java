@@ -0,0 +1,37 @@
+package io.whitefox.core;
+
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Honors the {@link ReadTableRequest#limitHint()} of a query by stopping the enumeration of its
+ * files once the files already returned hold at least that many records.
+ * <p>
+ * The number of records is an upper bound of the rows matching a predicate, so the limit is only
+ * applied to queries without predicate hints, where every record of a file is returned. Files
+ * whose number of records is unknown are returned without counting towards the limit.
+ */
+public class RecordsLimit {
+
+  private RecordsLimit() {}
+
+  public static <T> Stream<T> apply(
+      ReadTableRequest readTableRequest, Stream<T> files, Function<T, OptionalLong> numRecords) {
+    if (readTableRequest.limitHint().isEmpty()
+        || readTableRequest.predicateHints().map(p -> !p.isEmpty()).orElse(false)
+        || readTableRequest.jsonPredicateHints().isPresent()) {
+      return files;
+    }
+    long limit = readTableRequest.limitHint().get();
+    // takeWhile evaluates the files in order, one at a time, on sequential streams
+    var records = new long[] {0L};
+    return files.takeWhile(file -> {
+      if (records[0] >= limit) {
+        return false;
+      }
+      records[0] += numRecords.apply(file).orElse(0L);
+      return true;
+    });
+  }
+}
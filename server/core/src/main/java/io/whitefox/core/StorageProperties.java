@@ -59,6 +59,25 @@ public interface StorageProperties {
   }
 
   public static class LocalProperties implements StorageProperties {
+    @Override
+    @SkipCoverageGenerated
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      return o != null && getClass() == o.getClass();
+    }
+
+    @Override
+    @SkipCoverageGenerated
+    public int hashCode() {
+      return LocalProperties.class.hashCode();
+    }
+
+    @Override
+    @SkipCoverageGenerated
+    public String toString() {
+      return "LocalProperties{}";
+    }
+
     @Override
     public void validateTypeAndUri(StorageType storageType, String uri) {
       if (storageType != StorageType.LOCAL) {
@@ -1,6 +1,25 @@
 package io.whitefox.core;
 
+/**
+ * Computes the id of a table file, returned to the clients along with its URL, from its path.
+ */
 public interface TableFileIdHashFunction {
 
   String hash(String tableFileId);
+
+  /**
+   * Returns the hash function called {@code name}: {@code murmur3}, fast and not cryptographic, or
+   * {@code md5}, to keep the ids returned to existing clients stable.
+   */
+  static TableFileIdHashFunction named(String name) {
+    switch (name) {
+      case "murmur3":
+        return new TableFileIdMurmur3HashFunction();
+      case "md5":
+        return new TableFileIdMd5HashFunction();
+      default:
+        throw new IllegalArgumentException(String.format(
+            "unrecognized file id hash function: [%s], murmur3 and md5 are supported", name));
+    }
+  }
 }
@@ -4,20 +4,27 @@ import jakarta.enterprise.context.ApplicationScoped;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import javax.xml.bind.DatatypeConverter;
+import java.util.HexFormat;
 
+/**
+ * Hashes the path of a file with MD5 into 32 upper case hex digits, the ids returned by the
+ * previous versions of the server.
+ */
 @ApplicationScoped
 public class TableFileIdMd5HashFunction implements TableFileIdHashFunction {
 
-  @Override
-  public String hash(String tableFileId) {
+  private static final HexFormat HEX = HexFormat.of().withUpperCase();
+
+  private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
     try {
-      MessageDigest md5 = MessageDigest.getInstance("md5");
-      md5.update(tableFileId.getBytes(StandardCharsets.UTF_8));
-      byte[] digest = md5.digest();
-      return DatatypeConverter.printHexBinary(digest);
+      return MessageDigest.getInstance("md5");
     } catch (NoSuchAlgorithmException e) {
       throw new RuntimeException(e);
     }
+  });
+
+  @Override
+  public String hash(String tableFileId) {
+    return HEX.formatHex(MD5.get().digest(tableFileId.getBytes(StandardCharsets.UTF_8)));
   }
 }
@@ -0,0 +1,127 @@
+package io.whitefox.core;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hashes the path of a file with the 128 bits variant of MurmurHash3 for x64, seed 0, into 32
+ * lower case hex digits, the little endian bytes of its two halves as printed by Guava.
+ * <p>
+ * The ids only need to tell the files of a table apart, so a non cryptographic hash is enough and
+ * much cheaper than MD5. The bytes of the path and the hex digits are written to buffers of the
+ * calling thread, so that hashing a path allocates nothing but the returned id.
+ */
+public class TableFileIdMurmur3HashFunction implements TableFileIdHashFunction {
+
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+  @Override
+  public String hash(String tableFileId) {
+    var buffers = BUFFERS.get();
+    var length = buffers.encode(tableFileId);
+    var bytes = buffers.encoded;
+    var h1 = 0L;
+    var h2 = 0L;
+    var blocksEnd = length & ~15;
+    for (int i = 0; i < blocksEnd; i += 16) {
+      h1 ^= mixK1(getLong(bytes, i));
+      h1 = Long.rotateLeft(h1, 27);
+      h1 += h2;
+      h1 = h1 * 5 + 0x52dce729;
+      h2 ^= mixK2(getLong(bytes, i + 8));
+      h2 = Long.rotateLeft(h2, 31);
+      h2 += h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+    var tail = length - blocksEnd;
+    if (tail > 8) {
+      h2 ^= mixK2(getTail(bytes, blocksEnd + 8, tail - 8));
+    }
+    if (tail > 0) {
+      h1 ^= mixK1(getTail(bytes, blocksEnd, Math.min(tail, 8)));
+    }
+    h1 ^= length;
+    h2 ^= length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix64(h1);
+    h2 = fmix64(h2);
+    h1 += h2;
+    h2 += h1;
+    var hex = buffers.hex;
+    writeHex(hex, 0, h1);
+    writeHex(hex, 16, h2);
+    return new String(hex);
+  }
+
+  private static long getLong(byte[] bytes, int offset) {
+    return getTail(bytes, offset, 8);
+  }
+
+  private static long getTail(byte[] bytes, int offset, int length) {
+    var k = 0L;
+    for (int i = length - 1; i >= 0; i--) {
+      k = (k << 8) | (bytes[offset + i] & 0xffL);
+    }
+    return k;
+  }
+
+  private static long mixK1(long k1) {
+    return Long.rotateLeft(k1 * C1, 31) * C2;
+  }
+
+  private static long mixK2(long k2) {
+    return Long.rotateLeft(k2 * C2, 33) * C1;
+  }
+
+  private static long fmix64(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+
+  /**
+   * Writes the 8 bytes of {@code h}, least significant first, as 16 hex digits.
+   */
+  private static void writeHex(char[] hex, int offset, long h) {
+    for (int i = 0; i < 8; i++) {
+      var b = (int) (h >>> (i * 8));
+      hex[offset + i * 2] = HEX_DIGITS[(b >>> 4) & 0xf];
+      hex[offset + i * 2 + 1] = HEX_DIGITS[b & 0xf];
+    }
+  }
+
+  private static final class Buffers {
+
+    private byte[] bytes = new byte[256];
+    private byte[] encoded = bytes;
+    private final char[] hex = new char[32];
+
+    /**
+     * Encodes {@code s} in UTF-8 to {@code encoded} and returns the number of bytes, the buffer of
+     * the thread is used when it is ASCII, as the paths of the files usually are.
+     */
+    private int encode(String s) {
+      var length = s.length();
+      if (length > bytes.length) {
+        bytes = new byte[Math.max(length, bytes.length * 2)];
+      }
+      for (int i = 0; i < length; i++) {
+        var c = s.charAt(i);
+        if (c >= 0x80) {
+          encoded = s.getBytes(StandardCharsets.UTF_8);
+          return encoded.length;
+        }
+        bytes[i] = (byte) c;
+      }
+      encoded = bytes;
+      return length;
+    }
+  }
+}
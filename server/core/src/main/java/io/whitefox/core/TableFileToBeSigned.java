@@ -17,6 +17,9 @@ public class TableFileToBeSigned {
   private final String stats;
   private final Map<String, String> partitionValues;
 
+  // not part of equals, as it is derived from the url
+  private volatile MemoizedId memoizedId;
+
   public TableFileToBeSigned(
       String url,
       long size,
@@ -87,4 +90,19 @@ public class TableFileToBeSigned {
   public Map<String, String> partitionValues() {
     return partitionValues;
   }
+
+  /**
+   * The id of the file computed by {@code hashFunction}, which is memoized so that the files of a
+   * snapshot shared by many queries are only hashed once.
+   */
+  public String id(TableFileIdHashFunction hashFunction) {
+    var memoized = memoizedId;
+    if (memoized == null || memoized.hashFunction() != hashFunction) {
+      memoized = new MemoizedId(hashFunction, hashFunction.hash(url));
+      memoizedId = memoized;
+    }
+    return memoized.id();
+  }
+
+  private record MemoizedId(TableFileIdHashFunction hashFunction, String id) {}
 }
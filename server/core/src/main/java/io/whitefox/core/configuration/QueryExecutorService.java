@@ -0,0 +1,172 @@
+package io.whitefox.core.configuration;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Bounded executor used to filter and sign the files of a query in parallel.
+ * <p>
+ * At most {@code parallelism} threads run chunks of files and at most {@code queue-size} chunks
+ * wait for a thread, when the queue is full the requesting thread processes its chunk itself, so
+ * a huge table slows down its own request instead of starving the others.
+ */
+@ApplicationScoped
+public class QueryExecutorService extends DelegateExecutorService {
+
+  private final int parallelism;
+  private final int chunkSize;
+
+  // For CDI 2.0 to work
+  public QueryExecutorService() {
+    this(4, 16, 1000);
+  }
+
+  @Inject
+  public QueryExecutorService(
+      @ConfigProperty(name = "whitefox.server.query.parallelism", defaultValue = "4")
+          int parallelism,
+      @ConfigProperty(name = "whitefox.server.query.queue-size", defaultValue = "16")
+          int queueSize,
+      @ConfigProperty(name = "whitefox.server.query.chunk-size", defaultValue = "1000")
+          int chunkSize) {
+    super(newThreadPool(parallelism, queueSize));
+    this.parallelism = parallelism;
+    this.chunkSize = chunkSize;
+  }
+
+  private static ThreadPoolExecutor newThreadPool(int parallelism, int queueSize) {
+    var threadCount = new AtomicInteger();
+    var executor = new ThreadPoolExecutor(
+        parallelism,
+        parallelism,
+        1,
+        TimeUnit.MINUTES,
+        new ArrayBlockingQueue<>(queueSize),
+        runnable -> {
+          var thread = new Thread(runnable, "whitefox-query-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Splits {@code items} into chunks, applies {@code f} to them concurrently and returns the
+   * concatenation of the results in the order of {@code items}.
+   * <p>
+   * Chunks are submitted as the returned stream is consumed, keeping at most
+   * {@code parallelism} of them in flight, and lists not larger than a chunk are processed on the
+   * calling thread. The first failure of {@code f} is rethrown while consuming the stream, closing
+   * the stream cancels the chunks still in flight.
+   */
+  public <T, R> Stream<R> mapChunks(List<T> items, Function<List<T>, List<R>> f) {
+    if (items.size() <= chunkSize) {
+      return f.apply(items).stream();
+    }
+    return ordered(new OrderedChunks<>(items.iterator(), f));
+  }
+
+  /**
+   * Same as {@link #mapChunks(List, Function)} for items that are enumerated lazily: they are read
+   * from {@code items} on the consuming thread a chunk at a time, so that at most
+   * {@code parallelism} chunks are held in memory. Closing the returned stream closes
+   * {@code items}.
+   */
+  public <T, R> Stream<R> mapChunks(Stream<T> items, Function<List<T>, List<R>> f) {
+    return ordered(new OrderedChunks<>(items.iterator(), f)).onClose(items::close);
+  }
+
+  private <R> Stream<R> ordered(OrderedChunks<?, R> chunks) {
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(chunks, Spliterator.ORDERED), false)
+        .onClose(chunks::cancel);
+  }
+
+  @PreDestroy
+  public void close() {
+    shutdownNow();
+  }
+
+  private final class OrderedChunks<T, R> implements Iterator<R> {
+    private final Iterator<T> items;
+    private final Function<List<T>, List<R>> f;
+    private final Deque<Future<List<R>>> inFlight = new ArrayDeque<>();
+    private boolean cancelled = false;
+    private Iterator<R> current = Collections.emptyIterator();
+
+    private OrderedChunks(Iterator<T> items, Function<List<T>, List<R>> f) {
+      this.items = items;
+      this.f = f;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!current.hasNext()) {
+        while (inFlight.size() < parallelism && !cancelled && items.hasNext()) {
+          var chunk = new ArrayList<T>(chunkSize);
+          while (chunk.size() < chunkSize && items.hasNext()) {
+            chunk.add(items.next());
+          }
+          inFlight.add(submit(() -> f.apply(chunk)));
+        }
+        if (inFlight.isEmpty()) {
+          return false;
+        }
+        current = await(inFlight.poll()).iterator();
+      }
+      return true;
+    }
+
+    @Override
+    public R next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return current.next();
+    }
+
+    private List<R> await(Future<List<R>> future) {
+      try {
+        return future.get();
+      } catch (ExecutionException e) {
+        cancel();
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw new RuntimeException(e.getCause());
+      } catch (InterruptedException e) {
+        cancel();
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(e);
+      }
+    }
+
+    private void cancel() {
+      inFlight.forEach(future -> future.cancel(true));
+      inFlight.clear();
+      cancelled = true;
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package io.whitefox.core.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.delta.standalone.DeltaLog;
+import io.whitefox.core.Storage;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Process-wide cache of {@link DeltaLog} instances keyed by storage and table location.
+ * <p>
+ * Creating a {@link DeltaLog} lists the whole {@code _delta_log} directory and replays it from the
+ * latest checkpoint, so instances are kept around and brought up to date with
+ * {@link DeltaLog#update()} on every hit, which only reads the commits written since the last
+ * update. Concurrent updates of the same table are coalesced into one.
+ */
+@ApplicationScoped
+public class DeltaLogCache {
+
+  private final HadoopConfigBuilder hadoopConfigBuilder;
+  private final Cache<Key, DeltaLog> cache;
+  private final SingleFlight<Key, DeltaLog> updates;
+
+  // For CDI 2.0 to work
+  public DeltaLogCache() {
+    this(1000L, Duration.ofHours(1), Duration.ofSeconds(30), new HadoopConfigBuilder());
+  }
+
+  @Inject
+  public DeltaLogCache(
+      @ConfigProperty(name = "whitefox.server.cache.delta-log.max-size", defaultValue = "1000")
+          long maxSize,
+      @ConfigProperty(
+              name = "whitefox.server.cache.delta-log.expire-after-access",
+              defaultValue = "PT1H")
+          Duration expireAfterAccess,
+      @ConfigProperty(name = "whitefox.server.single-flight.timeout", defaultValue = "PT30S")
+          Duration singleFlightTimeout,
+      HadoopConfigBuilder hadoopConfigBuilder) {
+    this.hadoopConfigBuilder = hadoopConfigBuilder;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterAccess(expireAfterAccess)
+        .recordStats()
+        .build();
+    this.updates = new SingleFlight<>(singleFlightTimeout);
+  }
+
+  /**
+   * Returns an up-to-date {@link DeltaLog} for the table at {@code location}, creating it on the
+   * first access and refreshing it incrementally on the following ones.
+   */
+  public DeltaLog forTable(Storage storage, String location) {
+    var key = new Key(storage, location);
+    var deltaLog = cache.getIfPresent(key);
+    if (deltaLog == null) {
+      // asMap() does not record statistics, the miss has already been counted above
+      return cache.asMap().computeIfAbsent(key, this::load);
+    }
+    // after a commit every request would list and replay the new commits, one of them is enough
+    return updates.execute(key, () -> {
+      deltaLog.update();
+      return deltaLog;
+    });
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  private DeltaLog load(Key key) {
+    return DeltaLog.forTable(hadoopConfigBuilder.buildConfig(key.storage()), key.location());
+  }
+
+  private record Key(Storage storage, String location) {}
+}
@@ -1,11 +1,42 @@
 package io.whitefox.core.services;
 
 import io.whitefox.core.SharedTable;
+import io.whitefox.core.configuration.QueryExecutorService;
 
 public class DeltaShareTableLoader implements TableLoader {
 
+  private final DeltaLogCache deltaLogCache;
+  private final ReadTableResultCache readTableResultCache;
+  private final DeltaSnapshotIndexCache snapshotIndexCache;
+  private final QueryExecutorService queryExecutor;
+
+  public DeltaShareTableLoader() {
+    this(
+        new DeltaLogCache(),
+        new ReadTableResultCache(),
+        new DeltaSnapshotIndexCache(),
+        new QueryExecutorService());
+  }
+
+  public DeltaShareTableLoader(
+      DeltaLogCache deltaLogCache,
+      ReadTableResultCache readTableResultCache,
+      DeltaSnapshotIndexCache snapshotIndexCache,
+      QueryExecutorService queryExecutor) {
+    this.deltaLogCache = deltaLogCache;
+    this.readTableResultCache = readTableResultCache;
+    this.snapshotIndexCache = snapshotIndexCache;
+    this.queryExecutor = queryExecutor;
+  }
+
   @Override
   public DeltaSharedTable loadTable(SharedTable sharedTable) {
-    return DeltaSharedTable.of(sharedTable);
+    return DeltaSharedTable.of(
+        sharedTable,
+        TableSchemaConverter.INSTANCE,
+        deltaLogCache,
+        readTableResultCache,
+        snapshotIndexCache,
+        queryExecutor);
   }
 }
@@ -1,59 +1,114 @@
 package io.whitefox.core.services;
 
-import static io.whitefox.core.PredicateUtils.evaluateJsonPredicate;
-import static io.whitefox.core.PredicateUtils.evaluateSqlPredicate;
-
 import io.delta.standalone.DeltaLog;
 import io.delta.standalone.Snapshot;
 import io.delta.standalone.actions.AddFile;
+import io.delta.standalone.data.CloseableIterator;
+import io.delta.standalone.expressions.Expression;
 import io.whitefox.core.*;
 import io.whitefox.core.Metadata;
 import io.whitefox.core.TableSchema;
+import io.whitefox.core.configuration.QueryExecutorService;
 import io.whitefox.core.services.capabilities.ResponseFormat;
-import io.whitefox.core.types.predicates.PredicateException;
+import io.whitefox.core.types.predicates.DeltaExpressions;
+import io.whitefox.core.types.predicates.EvalContext;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.Timestamp;
-import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
-import org.apache.log4j.Logger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class DeltaSharedTable implements InternalSharedTable {
 
-  private final Logger logger = Logger.getLogger(this.getClass());
-
   private final DeltaLog deltaLog;
   private final TableSchemaConverter tableSchemaConverter;
   private final SharedTable tableDetails;
   private final String location;
+  private final ReadTableResultCache readTableResultCache;
+  private final DeltaSnapshotIndexCache snapshotIndexCache;
+  private final QueryExecutorService queryExecutor;
 
   private DeltaSharedTable(
       DeltaLog deltaLog,
       TableSchemaConverter tableSchemaConverter,
       SharedTable sharedTable,
-      String location) {
+      String location,
+      ReadTableResultCache readTableResultCache,
+      DeltaSnapshotIndexCache snapshotIndexCache,
+      QueryExecutorService queryExecutor) {
     this.deltaLog = deltaLog;
     this.tableSchemaConverter = tableSchemaConverter;
     this.tableDetails = sharedTable;
     this.location = location;
+    this.readTableResultCache = readTableResultCache;
+    this.snapshotIndexCache = snapshotIndexCache;
+    this.queryExecutor = queryExecutor;
   }
 
   public static DeltaSharedTable of(
       SharedTable sharedTable,
       TableSchemaConverter tableSchemaConverter,
       HadoopConfigBuilder hadoopConfigBuilder) {
+    return of(
+        sharedTable,
+        tableSchemaConverter,
+        (storage, dataPath) ->
+            DeltaLog.forTable(hadoopConfigBuilder.buildConfig(storage), dataPath),
+        new ReadTableResultCache(),
+        new DeltaSnapshotIndexCache(),
+        new QueryExecutorService());
+  }
+
+  public static DeltaSharedTable of(
+      SharedTable sharedTable,
+      TableSchemaConverter tableSchemaConverter,
+      DeltaLogCache deltaLogCache,
+      ReadTableResultCache readTableResultCache,
+      DeltaSnapshotIndexCache snapshotIndexCache,
+      QueryExecutorService queryExecutor) {
+    return of(
+        sharedTable,
+        tableSchemaConverter,
+        deltaLogCache::forTable,
+        readTableResultCache,
+        snapshotIndexCache,
+        queryExecutor);
+  }
+
+  private static DeltaSharedTable of(
+      SharedTable sharedTable,
+      TableSchemaConverter tableSchemaConverter,
+      BiFunction<Storage, String, DeltaLog> deltaLogProvider,
+      ReadTableResultCache readTableResultCache,
+      DeltaSnapshotIndexCache snapshotIndexCache,
+      QueryExecutorService queryExecutor) {
 
     if (sharedTable.internalTable().properties() instanceof InternalTable.DeltaTableProperties) {
       InternalTable.DeltaTableProperties deltaProps =
           (InternalTable.DeltaTableProperties) sharedTable.internalTable().properties();
       var dataPath = deltaProps.location();
-      var dt = DeltaLog.forTable(
-          hadoopConfigBuilder.buildConfig(sharedTable.internalTable().provider().storage()),
-          dataPath);
+      var dt = deltaLogProvider.apply(sharedTable.internalTable().provider().storage(), dataPath);
       if (!dt.tableExists()) {
         throw new IllegalArgumentException(
             String.format("Cannot find a delta table at %s", dataPath));
       }
-      return new DeltaSharedTable(dt, tableSchemaConverter, sharedTable, dataPath);
+      return new DeltaSharedTable(
+          dt,
+          tableSchemaConverter,
+          sharedTable,
+          dataPath,
+          readTableResultCache,
+          snapshotIndexCache,
+          queryExecutor);
     } else {
       throw new IllegalArgumentException(
           String.format("%s is not a delta table", sharedTable.name()));
@@ -88,79 +143,170 @@ public class DeltaSharedTable implements InternalSharedTable {
     return getSnapshot(startingTimestamp).map(Snapshot::getVersion);
   }
 
-  public boolean filterFilesBasedOnSqlPredicates(
-      Optional<List<String>> predicates, AddFile f, Metadata metadata) {
-    // if there are no predicates return all possible files
-    if (predicates.isEmpty()) {
-      return true;
-    }
-    try {
-      var ctx = PredicateUtils.createEvalContext(f);
-      return predicates.get().stream().allMatch(p -> evaluateSqlPredicate(p, ctx, f, metadata));
-    } catch (PredicateException e) {
-      logger.debug("Caught exception: " + e.getMessage());
-      logger.info("File: " + f.getPath()
-          + " will be used in processing due to failure in parsing or processing the predicate");
-      return true;
-    }
-  }
-
-  public boolean filterFilesBasedOnJsonPredicates(Optional<String> predicates, AddFile f) {
-    // if there are no predicates return all possible files
-    if (predicates.isEmpty()) {
-      return true;
-    }
-    try {
-      var ctx = PredicateUtils.createEvalContext(f);
-      return evaluateJsonPredicate(predicates, ctx, f);
-    } catch (PredicateException e) {
-      logger.debug("Caught exception: " + e.getMessage());
-      logger.info("File: " + f.getPath()
-          + " will be used in processing due to failure in parsing or processing the predicate");
-      return true;
-    }
-  }
-
   public ReadTableResultToBeSigned queryTable(ReadTableRequest readTableRequest) {
-    Optional<String> predicates;
-    Optional<List<String>> sqlPredicates;
     Snapshot snapshot;
     if (readTableRequest instanceof ReadTableRequest.ReadTableCurrentVersion) {
       snapshot = deltaLog.snapshot();
-      predicates =
-          ((ReadTableRequest.ReadTableCurrentVersion) readTableRequest).jsonPredicateHints();
-      sqlPredicates =
-          ((ReadTableRequest.ReadTableCurrentVersion) readTableRequest).predicateHints();
     } else if (readTableRequest instanceof ReadTableRequest.ReadTableAsOfTimestamp) {
       snapshot = deltaLog.getSnapshotForTimestampAsOf(
           ((ReadTableRequest.ReadTableAsOfTimestamp) readTableRequest).timestamp());
-      predicates =
-          ((ReadTableRequest.ReadTableAsOfTimestamp) readTableRequest).jsonPredicateHints();
-      sqlPredicates = ((ReadTableRequest.ReadTableAsOfTimestamp) readTableRequest).predicateHints();
     } else if (readTableRequest instanceof ReadTableRequest.ReadTableVersion) {
       snapshot = deltaLog.getSnapshotForVersionAsOf(
           ((ReadTableRequest.ReadTableVersion) readTableRequest).version());
-      predicates = ((ReadTableRequest.ReadTableVersion) readTableRequest).jsonPredicateHints();
-      sqlPredicates = ((ReadTableRequest.ReadTableVersion) readTableRequest).predicateHints();
     } else {
       throw new IllegalArgumentException("Unknown ReadTableRequest type: " + readTableRequest);
     }
+    return readTableResultCache
+        .getIfPresent(tableDetails, snapshot.getVersion(), readTableRequest)
+        .orElseGet(() -> queryTable(snapshot, readTableRequest));
+  }
+
+  /**
+   * Queries the index of {@code snapshot} when it is cached, otherwise enumerates all the files of
+   * the snapshot to index it, whatever the partition filter of the query, unless the snapshot is
+   * known to be too large to be indexed, in which case only the files of the partitions matching
+   * the predicates are enumerated.
+   * <p>
+   * Up to {@code max-files-per-snapshot} files are buffered: if the enumeration ends before, the
+   * result is small enough to be cached, along with the index of the snapshot when it was fully
+   * enumerated. Otherwise the files are streamed from the log as the result is consumed, so that
+   * memory does not grow with the size of the table, nothing is cached and the snapshot is
+   * remembered as too large.
+   */
+  private ReadTableResultToBeSigned queryTable(
+      Snapshot snapshot, ReadTableRequest readTableRequest) {
     var metadata = metadataFromSnapshot(snapshot);
-    return new ReadTableResultToBeSigned(
-        new Protocol(Optional.of(1)),
+    var predicates = CompiledPredicates.compile(
+        readTableRequest.jsonPredicateHints(), readTableRequest.predicateHints(), metadata);
+    var cachedIndex = snapshotIndexCache.getIfPresent(location(), snapshot.getVersion());
+    if (cachedIndex.isPresent()) {
+      return readTableResultCache.get(
+          tableDetails,
+          snapshot.getVersion(),
+          readTableRequest,
+          () -> queryIndex(snapshot, metadata, predicates, readTableRequest, cachedIndex.get()));
+    }
+    var indexable = !snapshotIndexCache.isTooLarge(location(), snapshot.getVersion());
+    var partitionFilter = indexable
+        ? Optional.<Expression>empty()
+        : DeltaExpressions.partitionFilter(predicates.predicates(), snapshot.getMetadata());
+    var files = partitionFilter.map(snapshot::scan).orElseGet(snapshot::scan).getFiles();
+    var buffered = new ArrayList<AddFile>();
+    boolean exhausted;
+    try {
+      while (buffered.size() < snapshotIndexCache.maxFilesPerSnapshot() && files.hasNext()) {
+        buffered.add(files.next());
+      }
+      exhausted = !files.hasNext();
+    } catch (RuntimeException e) {
+      close(files);
+      throw e;
+    }
+    if (exhausted) {
+      close(files);
+      return readTableResultCache.get(
+          tableDetails,
+          snapshot.getVersion(),
+          readTableRequest,
+          () -> indexable
+              ? queryIndex(
+                  snapshot,
+                  metadata,
+                  predicates,
+                  readTableRequest,
+                  snapshotIndexCache.get(location(), snapshot.getVersion(), buffered))
+              : result(snapshot, metadata, matching(buffered.stream(), predicates)));
+    }
+    if (indexable) {
+      snapshotIndexCache.markTooLarge(location(), snapshot.getVersion());
+    }
+    var allFiles = Stream.concat(
+            buffered.stream(),
+            StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(files, Spliterator.ORDERED), false))
+        .onClose(() -> close(files));
+    return result(
+        snapshot,
         metadata,
-        snapshot.getAllFiles().stream()
-            .filter(f -> filterFilesBasedOnJsonPredicates(predicates, f))
-            .filter(f -> filterFilesBasedOnSqlPredicates(sqlPredicates, f, metadata))
-            .map(f -> new TableFileToBeSigned(
-                location() + "/" + f.getPath(),
-                f.getSize(),
-                snapshot.getVersion(),
-                snapshot.getMetadata().getCreatedTime(),
-                f.getStats(),
-                f.getPartitionValues()))
-            .collect(Collectors.toList()),
-        snapshot.getVersion());
+        RecordsLimit.apply(
+            readTableRequest, matching(allFiles, predicates), DeltaSharedTable::numRecords));
+  }
+
+  private ReadTableResultToBeSigned queryIndex(
+      Snapshot snapshot,
+      Metadata metadata,
+      CompiledPredicates predicates,
+      ReadTableRequest readTableRequest,
+      DeltaSnapshotIndex index) {
+    var files = index.files();
+    var candidates = predicates
+        .candidates(index.partitionIndex())
+        .stream()
+        .boxed()
+        .collect(Collectors.toList());
+    var matchingFiles = predicates.isEmpty()
+        ? candidates.stream()
+        : queryExecutor.mapChunks(candidates, chunk -> chunk.stream()
+            .filter(i -> predicates.test(index.evalContext(i), files.get(i).getPath()))
+            .collect(Collectors.toList()));
+    return signableResult(
+        snapshot,
+        metadata,
+        RecordsLimit.apply(readTableRequest, matchingFiles, index.statsIndex()::numRecords)
+            .map(i -> index.toBeSigned(i, f -> toBeSigned(snapshot, f))));
+  }
+
+  /**
+   * Evaluates the predicates on the statistics of {@code files}, a chunk at a time, without
+   * indexing the whole snapshot. Closing the returned stream closes {@code files}.
+   */
+  private Stream<AddFile> matching(Stream<AddFile> files, CompiledPredicates predicates) {
+    if (predicates.isEmpty()) {
+      return files;
+    }
+    return queryExecutor.mapChunks(files, chunk -> {
+      var statsIndex =
+          FileStatsIndex.of(chunk.stream().map(AddFile::getStats).collect(Collectors.toList()));
+      return IntStream.range(0, chunk.size())
+          .filter(i -> predicates.test(
+              new EvalContext(chunk.get(i).getPartitionValues(), statsIndex, i),
+              chunk.get(i).getPath()))
+          .mapToObj(chunk::get)
+          .collect(Collectors.toList());
+    });
+  }
+
+  private ReadTableResultToBeSigned result(
+      Snapshot snapshot, Metadata metadata, Stream<AddFile> files) {
+    return signableResult(snapshot, metadata, files.map(f -> toBeSigned(snapshot, f)));
+  }
+
+  private ReadTableResultToBeSigned signableResult(
+      Snapshot snapshot, Metadata metadata, Stream<TableFileToBeSigned> files) {
+    return new ReadTableResultToBeSigned(
+        new Protocol(Optional.of(1)), metadata, files, snapshot.getVersion());
+  }
+
+  private static OptionalLong numRecords(AddFile file) {
+    return FileStatsIndex.of(Collections.singletonList(file.getStats())).numRecords(0);
+  }
+
+  private static void close(CloseableIterator<AddFile> files) {
+    try {
+      files.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private TableFileToBeSigned toBeSigned(Snapshot snapshot, AddFile file) {
+    return new TableFileToBeSigned(
+        location() + "/" + file.getPath(),
+        file.getSize(),
+        snapshot.getVersion(),
+        snapshot.getMetadata().getCreatedTime(),
+        file.getStats(),
+        file.getPartitionValues());
   }
 
   private Optional<Snapshot> getSnapshot(Optional<Timestamp> startingTimestamp) {
@@ -43,4 +43,12 @@ public interface DeltaSharesService {
       String table,
       ReadTableRequest queryRequest,
       ClientCapabilities clientCapabilities);
+
+  /**
+   * Presigns again the URLs of the files of {@code version} of the table with the given
+   * {@code ids}, leaving out the ids of files that were not returned by a recent query of that
+   * version. Only the ids, URLs and expirations of the returned files are meaningful.
+   */
+  List<TableFile> refreshTableFiles(
+      String share, String schema, String table, long version, List<String> ids);
 }
@@ -1,6 +1,7 @@
 package io.whitefox.core.services;
 
 import io.whitefox.core.*;
+import io.whitefox.core.configuration.QueryExecutorService;
 import io.whitefox.core.services.capabilities.ClientCapabilities;
 import io.whitefox.core.services.capabilities.ResponseFormat;
 import io.whitefox.core.services.exceptions.IncompatibleTableWithClient;
@@ -9,7 +10,9 @@ import io.whitefox.persistence.StorageManager;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -19,10 +22,31 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 @ApplicationScoped
 public class DeltaSharesServiceImpl implements DeltaSharesService {
 
+  private static final int MAX_REFRESHED_FILES = 10_000;
+
   private final StorageManager storageManager;
   private final Integer defaultMaxResults;
   private final TableLoaderFactory tableLoaderFactory;
   private final FileSignerFactory fileSignerFactory;
+  private final QueryExecutorService queryExecutor;
+  private final QueriedFilesIndex queriedFilesIndex;
+  private final SingleFlight<TableAt, Optional<Long>> versionLoads;
+  private final SingleFlight<TableAt, Optional<Metadata>> metadataLoads;
+
+  public DeltaSharesServiceImpl(
+      StorageManager storageManager,
+      Integer defaultMaxResults,
+      TableLoaderFactory tableLoaderFactory,
+      FileSignerFactory signerFactory) {
+    this(
+        storageManager,
+        defaultMaxResults,
+        tableLoaderFactory,
+        signerFactory,
+        Duration.ofSeconds(30),
+        new QueryExecutorService(),
+        new QueriedFilesIndex());
+  }
 
   @Inject
   public DeltaSharesServiceImpl(
@@ -30,11 +54,19 @@ public class DeltaSharesServiceImpl implements DeltaSharesService {
       @ConfigProperty(name = "io.delta.sharing.api.server.defaultMaxResults")
           Integer defaultMaxResults,
       TableLoaderFactory tableLoaderFactory,
-      FileSignerFactory signerFactory) {
+      FileSignerFactory signerFactory,
+      @ConfigProperty(name = "whitefox.server.single-flight.timeout", defaultValue = "PT30S")
+          Duration singleFlightTimeout,
+      QueryExecutorService queryExecutor,
+      QueriedFilesIndex queriedFilesIndex) {
     this.storageManager = storageManager;
     this.defaultMaxResults = defaultMaxResults;
     this.tableLoaderFactory = tableLoaderFactory;
     this.fileSignerFactory = signerFactory;
+    this.queryExecutor = queryExecutor;
+    this.queriedFilesIndex = queriedFilesIndex;
+    this.versionLoads = new SingleFlight<>(singleFlightTimeout);
+    this.metadataLoads = new SingleFlight<>(singleFlightTimeout);
   }
 
   @Override
@@ -42,10 +74,12 @@ public class DeltaSharesServiceImpl implements DeltaSharesService {
       String share, String schema, String table, Optional<Timestamp> startingTimestamp) {
     return storageManager
         .getSharedTable(share, schema, table)
-        .map(t -> tableLoaderFactory
-            .newTableLoader(t.internalTable())
-            .loadTable(t)
-            .getTableVersion(startingTimestamp))
+        .map(t -> versionLoads.execute(
+            new TableAt(t, startingTimestamp),
+            () -> tableLoaderFactory
+                .newTableLoader(t.internalTable())
+                .loadTable(t)
+                .getTableVersion(startingTimestamp)))
         .orElse(Optional.empty());
   }
 
@@ -71,11 +105,14 @@ public class DeltaSharesServiceImpl implements DeltaSharesService {
       String tableName,
       Optional<Timestamp> startingTimestamp,
       ClientCapabilities clientCapabilities) {
-    var table = storageManager
+    return storageManager
         .getSharedTable(share, schema, tableName)
-        .map(t -> tableLoaderFactory.newTableLoader(t.internalTable()).loadTable(t));
-    return table
-        .flatMap(t -> t.getMetadata(startingTimestamp))
+        .flatMap(t -> metadataLoads.execute(
+            new TableAt(t, startingTimestamp),
+            () -> tableLoaderFactory
+                .newTableLoader(t.internalTable())
+                .loadTable(t)
+                .getMetadata(startingTimestamp)))
         .map(m -> checkResponseFormat(clientCapabilities, Metadata::format, m, tableName));
   }
 
@@ -141,32 +178,90 @@ public class DeltaSharesServiceImpl implements DeltaSharesService {
       String tableName,
       ReadTableRequest queryRequest,
       ClientCapabilities clientCapabilities) {
-    SharedTable sharedTable = storageManager
-        .getSharedTable(share, schema, tableName)
-        .orElseThrow(() -> new TableNotFound(String.format(
-            "Table %s not found in share %s with schema %s", tableName, share, schema)));
+    SharedTable sharedTable = sharedTable(share, schema, tableName);
 
-    try (FileSigner fileSigner =
-        fileSignerFactory.newFileSigner(sharedTable.internalTable().provider().storage())) {
-      var readTableResultToBeSigned = tableLoaderFactory
-          .newTableLoader(sharedTable.internalTable())
-          .loadTable(sharedTable)
-          .queryTable(queryRequest);
+    var readTableResultToBeSigned = tableLoaderFactory
+        .newTableLoader(sharedTable.internalTable())
+        .loadTable(sharedTable)
+        .queryTable(queryRequest);
+    FileSigner fileSigner;
+    try {
+      fileSigner = fileSignerFactory.newFileSigner(
+          sharedTable.internalTable().provider().storage(), Optional.of(share));
+    } catch (RuntimeException e) {
+      // the files may be enumerated from the delta log, which has to be closed
+      readTableResultToBeSigned.other().close();
+      throw e;
+    }
+    var recorder = queriedFilesIndex.recorder(
+        share, schema, tableName, readTableResultToBeSigned.version());
+    // files are signed while the response is written, the signer is closed along with the stream
+    // and the files written are indexed, so that their URLs can be refreshed
+    var files = queryExecutor
+        .mapChunks(readTableResultToBeSigned.other(), chunk -> {
+          var signed = fileSigner.signAll(chunk);
+          for (int i = 0; i < signed.size(); i++) {
+            recorder.record(signed.get(i).id(), chunk.get(i).url());
+          }
+          return signed;
+        })
+        .onClose(() -> {
+          recorder.close();
+          close(fileSigner);
+        });
+    try {
       return checkResponseFormat(
           clientCapabilities,
           ReadTableResult::responseFormat,
           new ReadTableResult(
               readTableResultToBeSigned.protocol(),
               readTableResultToBeSigned.metadata(),
-              readTableResultToBeSigned.other().stream()
-                  .map(fileSigner::sign)
-                  .collect(Collectors.toList()),
+              files,
               readTableResultToBeSigned.version(),
-              ResponseFormat.parquet),
+              ResponseFormat.parquet,
+              fileSigner.refreshBefore()),
           tableName);
+    } catch (RuntimeException e) {
+      files.close();
+      throw e;
+    }
+  }
+
+  @Override
+  @SneakyThrows
+  public List<TableFile> refreshTableFiles(
+      String share, String schema, String tableName, long version, List<String> ids) {
+    if (ids.size() > MAX_REFRESHED_FILES) {
+      throw new IllegalArgumentException(String.format(
+          "At most %d files can be refreshed at once, %d were requested",
+          MAX_REFRESHED_FILES, ids.size()));
+    }
+    SharedTable sharedTable = sharedTable(share, schema, tableName);
+    var paths = queriedFilesIndex.paths(share, schema, tableName, version, ids);
+    if (paths.isEmpty()) {
+      return List.of();
+    }
+    try (FileSigner fileSigner = fileSignerFactory.newFileSigner(
+        sharedTable.internalTable().provider().storage(), Optional.of(share))) {
+      // the signer hashes the paths back to the ids, the other fields are not refreshed
+      return fileSigner.signAll(paths.values().stream()
+          .map(path -> new TableFileToBeSigned(path, 0, version, Optional.empty(), "", Map.of()))
+          .collect(Collectors.toList()));
     }
   }
 
+  private SharedTable sharedTable(String share, String schema, String tableName) {
+    return storageManager
+        .getSharedTable(share, schema, tableName)
+        .orElseThrow(() -> new TableNotFound(String.format(
+            "Table %s not found in share %s with schema %s", tableName, share, schema)));
+  }
+
+  @SneakyThrows
+  private static void close(FileSigner fileSigner) {
+    fileSigner.close();
+  }
+
   private <A> A checkResponseFormat(
       ClientCapabilities clientCapabilities,
       Function<A, ResponseFormat> formatExtractor,
@@ -181,4 +276,9 @@ public class DeltaSharesServiceImpl implements DeltaSharesService {
       return formatContainer;
     }
   }
+
+  /**
+   * A shared table read as of a timestamp, or as of its latest version when empty.
+   */
+  private record TableAt(SharedTable table, Optional<Timestamp> timestamp) {}
 }
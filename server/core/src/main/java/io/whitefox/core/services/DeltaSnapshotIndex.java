@@ -0,0 +1,74 @@
+package io.whitefox.core.services;
+
+import io.delta.standalone.actions.AddFile;
+import io.whitefox.core.FileStatsIndex;
+import io.whitefox.core.TableFileToBeSigned;
+import io.whitefox.core.types.predicates.EvalContext;
+import io.whitefox.core.types.predicates.PartitionIndex;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The files of a delta snapshot together with their parsed statistics and partition index, built
+ * once and shared by all the queries on the same snapshot.
+ * <p>
+ * The files to be signed are built the first time they are returned by a query and kept, so that
+ * their ids are only computed once for the snapshot.
+ */
+public class DeltaSnapshotIndex {
+
+  private final List<AddFile> files;
+  private final FileStatsIndex statsIndex;
+  private final PartitionIndex partitionIndex;
+  private final AtomicReferenceArray<TableFileToBeSigned> toBeSigned;
+
+  private DeltaSnapshotIndex(
+      List<AddFile> files, FileStatsIndex statsIndex, PartitionIndex partitionIndex) {
+    this.files = files;
+    this.statsIndex = statsIndex;
+    this.partitionIndex = partitionIndex;
+    this.toBeSigned = new AtomicReferenceArray<>(files.size());
+  }
+
+  public static DeltaSnapshotIndex of(List<AddFile> allFiles) {
+    var files = List.copyOf(allFiles);
+    return new DeltaSnapshotIndex(
+        files,
+        FileStatsIndex.of(files.stream().map(AddFile::getStats).collect(Collectors.toList())),
+        PartitionIndex.of(
+            files.stream().map(AddFile::getPartitionValues).collect(Collectors.toList())));
+  }
+
+  public List<AddFile> files() {
+    return files;
+  }
+
+  public FileStatsIndex statsIndex() {
+    return statsIndex;
+  }
+
+  public PartitionIndex partitionIndex() {
+    return partitionIndex;
+  }
+
+  public EvalContext evalContext(int file) {
+    return new EvalContext(files.get(file).getPartitionValues(), statsIndex, file);
+  }
+
+  /**
+   * The {@code file} to be signed, built by {@code build} the first time it is requested.
+   */
+  public TableFileToBeSigned toBeSigned(int file, Function<AddFile, TableFileToBeSigned> build) {
+    var built = toBeSigned.get(file);
+    if (built == null) {
+      built = build.apply(files.get(file));
+      // a concurrent query may have built it first, its id may be memoized already
+      if (!toBeSigned.compareAndSet(file, null, built)) {
+        built = toBeSigned.get(file);
+      }
+    }
+    return built;
+  }
+}
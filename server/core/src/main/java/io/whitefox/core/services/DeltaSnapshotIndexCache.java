@@ -0,0 +1,95 @@
+package io.whitefox.core.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.delta.standalone.actions.AddFile;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Cache of {@link DeltaSnapshotIndex} keyed by table location and snapshot version.
+ * <p>
+ * A snapshot never changes, so an index is valid for as long as it is cached and is only evicted
+ * by size, measured in number of files, or by inactivity. Snapshots with more than
+ * {@code max-files-per-snapshot} files are never indexed, their files are streamed instead of
+ * being held in memory, and they are remembered as too large so that the following queries do not
+ * try to index them again.
+ */
+@ApplicationScoped
+public class DeltaSnapshotIndexCache {
+
+  private final Cache<Key, DeltaSnapshotIndex> cache;
+  private final Cache<Key, Boolean> tooLarge;
+  private final int maxFilesPerSnapshot;
+
+  // For CDI 2.0 to work
+  public DeltaSnapshotIndexCache() {
+    this(1_000_000L, Duration.ofMinutes(10), 100_000);
+  }
+
+  @Inject
+  public DeltaSnapshotIndexCache(
+      @ConfigProperty(
+              name = "whitefox.server.cache.delta-snapshot-index.max-files",
+              defaultValue = "1000000")
+          long maxFiles,
+      @ConfigProperty(
+              name = "whitefox.server.cache.delta-snapshot-index.expire-after-access",
+              defaultValue = "PT10M")
+          Duration expireAfterAccess,
+      @ConfigProperty(
+              name = "whitefox.server.cache.delta-snapshot-index.max-files-per-snapshot",
+              defaultValue = "100000")
+          int maxFilesPerSnapshot) {
+    this.maxFilesPerSnapshot = maxFilesPerSnapshot;
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maxFiles)
+        .<Key, DeltaSnapshotIndex>weigher((key, index) -> 1 + index.files().size())
+        .expireAfterAccess(expireAfterAccess)
+        .recordStats()
+        .build();
+    this.tooLarge = Caffeine.newBuilder()
+        .maximumSize(10_000)
+        .expireAfterAccess(expireAfterAccess)
+        .build();
+  }
+
+  /**
+   * Returns the index of the snapshot identified by {@code version}, building it from
+   * {@code files}, all the files of the snapshot, when it is not cached yet.
+   */
+  public DeltaSnapshotIndex get(String location, long version, List<AddFile> files) {
+    return cache.get(new Key(location, version), k -> DeltaSnapshotIndex.of(files));
+  }
+
+  public Optional<DeltaSnapshotIndex> getIfPresent(String location, long version) {
+    return Optional.ofNullable(cache.getIfPresent(new Key(location, version)));
+  }
+
+  /**
+   * Whether the snapshot identified by {@code version} has been found to have more than
+   * {@code max-files-per-snapshot} files.
+   */
+  public boolean isTooLarge(String location, long version) {
+    return tooLarge.getIfPresent(new Key(location, version)) != null;
+  }
+
+  public void markTooLarge(String location, long version) {
+    tooLarge.put(new Key(location, version), Boolean.TRUE);
+  }
+
+  public int maxFilesPerSnapshot() {
+    return maxFilesPerSnapshot;
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  private record Key(String location, long version) {}
+}
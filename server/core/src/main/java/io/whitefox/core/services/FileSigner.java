@@ -2,7 +2,27 @@ package io.whitefox.core.services;
 
 import io.whitefox.core.TableFile;
 import io.whitefox.core.TableFileToBeSigned;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 public interface FileSigner extends AutoCloseable {
   TableFile sign(TableFileToBeSigned s);
+
+  /**
+   * Signs {@code files} as a batch, returning the signed files in the same order. Signers that can
+   * share work among the files of a batch override it, by default each file is signed on its own.
+   */
+  default List<TableFile> signAll(List<TableFileToBeSigned> files) {
+    return files.stream().map(this::sign).collect(Collectors.toList());
+  }
+
+  /**
+   * The time before which the clients should refresh the URLs signed by this signer, as some of
+   * them may expire right after it, empty if they do not expire.
+   */
+  default Optional<Instant> refreshBefore() {
+    return Optional.empty();
+  }
 }
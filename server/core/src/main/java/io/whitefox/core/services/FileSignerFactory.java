@@ -1,8 +1,17 @@
 package io.whitefox.core.services;
 
 import io.whitefox.core.Storage;
+import java.util.Optional;
 
 public interface FileSignerFactory {
 
-  FileSigner newFileSigner(Storage storage);
+  default FileSigner newFileSigner(Storage storage) {
+    return newFileSigner(storage, Optional.empty());
+  }
+
+  /**
+   * Creates the signer of the files of {@code storage} returned by a query of {@code share}, which
+   * can decide for how long their URLs are valid.
+   */
+  FileSigner newFileSigner(Storage storage, Optional<String> share);
 }
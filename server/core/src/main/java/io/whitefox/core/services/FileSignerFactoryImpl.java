@@ -3,26 +3,90 @@ package io.whitefox.core.services;
 import io.whitefox.core.AwsCredentials;
 import io.whitefox.core.Storage;
 import io.whitefox.core.StorageProperties;
-import io.whitefox.core.TableFileIdMd5HashFunction;
+import io.whitefox.core.TableFileIdHashFunction;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
+/**
+ * Creates the {@link FileSigner} of a storage.
+ * <p>
+ * Building an {@link S3Presigner} resolves credentials, region and signer, so one presigner is
+ * kept for each storage and shared by all the signers created for it. The presigner is rebuilt
+ * when the credentials of the storage change, the replaced one is closed once the signers still
+ * using it are closed, and the URLs signed with the replaced credentials are evicted from the
+ * cache. All the presigners are closed on shutdown.
+ * <p>
+ * The signers of all the storages share a {@link PresignedUrlCache}, and sign URLs valid for the
+ * duration decided by the {@link SignatureDurationPolicy}.
+ * <p>
+ * The ids of the files are hashed by {@code whitefox.server.file-id.hash-function}, {@code md5}
+ * by default, which returns the same ids as the previous versions. The faster {@code murmur3} is
+ * opt-in: it changes the ids of all the files, so clients that kept ids from earlier responses, to
+ * refresh their URLs or to compare them across queries, see them as different files.
+ */
 @ApplicationScoped
 public class FileSignerFactoryImpl implements FileSignerFactory {
 
   private final S3ClientFactory s3ClientFactory;
+  private final PresignedUrlCache presignedUrlCache;
+  private final SignatureDurationPolicy signatureDurationPolicy;
+  private final TableFileIdHashFunction tableFileIdHashFunction;
+
+  private final ConcurrentMap<String, PooledPresigner> presigners = new ConcurrentHashMap<>();
+  private final AtomicLong credentialsGenerations = new AtomicLong();
 
   public FileSignerFactoryImpl(S3ClientFactory s3ClientFactory) {
+    this(s3ClientFactory, new PresignedUrlCache());
+  }
+
+  public FileSignerFactoryImpl(
+      S3ClientFactory s3ClientFactory, PresignedUrlCache presignedUrlCache) {
+    this(s3ClientFactory, presignedUrlCache, new SignatureDurationPolicy(), "md5");
+  }
+
+  @Inject
+  public FileSignerFactoryImpl(
+      S3ClientFactory s3ClientFactory,
+      PresignedUrlCache presignedUrlCache,
+      SignatureDurationPolicy signatureDurationPolicy,
+      @ConfigProperty(name = "whitefox.server.file-id.hash-function", defaultValue = "md5")
+          String tableFileIdHashFunction) {
     this.s3ClientFactory = s3ClientFactory;
+    this.presignedUrlCache = presignedUrlCache;
+    this.signatureDurationPolicy = signatureDurationPolicy;
+    // a single instance, the ids memoized by the files to be signed are bound to it
+    this.tableFileIdHashFunction = TableFileIdHashFunction.named(tableFileIdHashFunction);
   }
 
   @Override
-  public FileSigner newFileSigner(Storage storage) {
+  public FileSigner newFileSigner(Storage storage, Optional<String> share) {
     switch (storage.type()) {
       case S3:
         AwsCredentials.SimpleAwsCredentials credentials = (AwsCredentials.SimpleAwsCredentials)
             ((StorageProperties.S3Properties) storage.properties()).credentials();
+        var pooled = leasePresigner(storage.name(), credentials);
+        var released = new AtomicBoolean(false);
         return new S3FileSigner(
-            s3ClientFactory.newS3Presigner(credentials), new TableFileIdMd5HashFunction());
+            storage.name(),
+            pooled.credentialsGeneration(),
+            pooled.presigner(),
+            credentials.awsSecretAccessKey(),
+            signatureDurationPolicy.signatureDuration(share, storage.name()),
+            tableFileIdHashFunction,
+            presignedUrlCache,
+            () -> {
+              if (released.compareAndSet(false, true)) {
+                pooled.release();
+              }
+            });
       case LOCAL:
         return new NoOpSigner();
       default:
@@ -30,4 +94,112 @@ public class FileSignerFactoryImpl implements FileSignerFactory {
             String.format("unrecognized storage type: [%s]", storage.type().value));
     }
   }
+
+  /**
+   * Returns the presigner of the storage with a lease, that must be released once the signer
+   * using it is closed.
+   */
+  private PooledPresigner leasePresigner(
+      String storageName, AwsCredentials.SimpleAwsCredentials credentials) {
+    while (true) {
+      var pooled = presigners.get(storageName);
+      if (pooled == null || !pooled.credentials().equals(credentials)) {
+        pooled = replacePresigner(storageName, credentials);
+      }
+      if (pooled.lease()) {
+        return pooled;
+      }
+      // replaced and closed in the meantime
+    }
+  }
+
+  private PooledPresigner replacePresigner(
+      String storageName, AwsCredentials.SimpleAwsCredentials credentials) {
+    var built = new PooledPresigner(
+        credentials,
+        credentialsGenerations.incrementAndGet(),
+        s3ClientFactory.newS3Presigner(credentials));
+    var replaced = new PooledPresigner[1];
+    var installed = presigners.compute(storageName, (name, pooled) -> {
+      if (pooled != null && pooled.credentials().equals(credentials)) {
+        return pooled;
+      }
+      replaced[0] = pooled;
+      return built;
+    });
+    if (installed != built) {
+      // a concurrent signer has rebuilt it first
+      built.retire();
+    }
+    if (replaced[0] != null) {
+      replaced[0].retire();
+      // the URLs signed with the previous credentials may no longer be valid
+      presignedUrlCache.invalidate(storageName, replaced[0].credentialsGeneration());
+    }
+    return installed;
+  }
+
+  @PreDestroy
+  public void close() {
+    presigners.values().forEach(PooledPresigner::retire);
+    presigners.clear();
+  }
+
+  /**
+   * A presigner with the count of the signers using it, which is closed once it is retired and
+   * the last of them is closed.
+   */
+  private static final class PooledPresigner {
+    private final AwsCredentials.SimpleAwsCredentials credentials;
+    private final long credentialsGeneration;
+    private final S3Presigner presigner;
+    private int leases = 0;
+    private boolean retired = false;
+
+    private PooledPresigner(
+        AwsCredentials.SimpleAwsCredentials credentials,
+        long credentialsGeneration,
+        S3Presigner presigner) {
+      this.credentials = credentials;
+      this.credentialsGeneration = credentialsGeneration;
+      this.presigner = presigner;
+    }
+
+    private AwsCredentials.SimpleAwsCredentials credentials() {
+      return credentials;
+    }
+
+    private long credentialsGeneration() {
+      return credentialsGeneration;
+    }
+
+    private S3Presigner presigner() {
+      return presigner;
+    }
+
+    private synchronized boolean lease() {
+      if (retired) {
+        return false;
+      }
+      leases++;
+      return true;
+    }
+
+    private synchronized void release() {
+      leases--;
+      if (retired && leases == 0) {
+        presigner.close();
+      }
+    }
+
+    private synchronized void retire() {
+      if (retired) {
+        return;
+      }
+      retired = true;
+      if (leases == 0) {
+        presigner.close();
+      }
+    }
+  }
 }
@@ -3,11 +3,40 @@ package io.whitefox.core.services;
 import io.whitefox.core.AwsCredentials;
 import io.whitefox.core.Storage;
 import io.whitefox.core.StorageProperties;
+import io.whitefox.core.StorageType;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.apache.hadoop.conf.Configuration;
 
+/**
+ * Builds the hadoop {@link Configuration} used to access a {@link Storage}.
+ * <p>
+ * Configurations are memoized per storage, so that the same instance is handed to every
+ * {@link org.apache.hadoop.fs.FileSystem} and the file systems, with their connection pools, can
+ * be reused across requests. A new configuration is built only when the type or the properties of
+ * the storage change. The returned configurations are shared and must be treated as read-only by
+ * the callers.
+ */
+@ApplicationScoped
 public class HadoopConfigBuilder {
 
+  private final ConcurrentMap<String, MemoizedConfig> configs = new ConcurrentHashMap<>();
+
   public Configuration buildConfig(Storage storage) {
+    return configs
+        .compute(storage.name(), (name, memoized) -> {
+          if (memoized != null
+              && memoized.type() == storage.type()
+              && memoized.properties().equals(storage.properties())) {
+            return memoized;
+          }
+          return new MemoizedConfig(storage.type(), storage.properties(), newConfig(storage));
+        })
+        .configuration();
+  }
+
+  private Configuration newConfig(Storage storage) {
     var configuration = new Configuration();
     switch (storage.type()) {
       case S3: {
@@ -33,4 +62,7 @@ public class HadoopConfigBuilder {
             String.format("storage type %s not handled", storage.type().value));
     }
   }
+
+  private record MemoizedConfig(
+      StorageType type, StorageProperties properties, Configuration configuration) {}
 }
@@ -3,8 +3,17 @@ package io.whitefox.core.services;
 import io.whitefox.core.Metastore;
 import io.whitefox.core.MetastoreProperties;
 import io.whitefox.core.Storage;
+import java.io.Closeable;
 import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
 import org.apache.iceberg.BaseMetastoreCatalog;
 import org.apache.iceberg.CatalogProperties;
 import org.apache.iceberg.Table;
@@ -12,48 +21,123 @@ import org.apache.iceberg.aws.glue.GlueCatalog;
 import org.apache.iceberg.catalog.TableIdentifier;
 import org.apache.iceberg.exceptions.NoSuchTableException;
 import org.apache.iceberg.hadoop.HadoopCatalog;
+import org.apache.log4j.Logger;
 
-public class IcebergCatalogHandler {
+/**
+ * Loads iceberg tables through long-lived catalogs.
+ * <p>
+ * Initializing a catalog creates AWS clients, hadoop file systems and thread pools, so a catalog
+ * is built once for each metastore and storage pair and shared by all the requests. Catalogs are
+ * thread safe, and they are rebuilt only when the definition of their metastore or storage
+ * changes.
+ * <p>
+ * The tables loaded from a catalog, which may be cached by {@link IcebergTableCache} or be read
+ * by requests in flight, read their files through the IO of the catalog, so a replaced catalog is
+ * only closed once {@code retiredCatalogGracePeriod} has elapsed, which must be longer than the
+ * time tables are cached for.
+ */
+public class IcebergCatalogHandler implements AutoCloseable {
+
+  private final Logger logger = Logger.getLogger(this.getClass());
 
   private final AwsGlueConfigBuilder awsGlueConfigBuilder;
 
   private final HadoopConfigBuilder hadoopConfigBuilder;
 
+  private final Duration retiredCatalogGracePeriod;
+
+  private final Clock clock;
+
+  private final ConcurrentMap<CatalogKey, PooledCatalog> catalogs = new ConcurrentHashMap<>();
+
+  private final Queue<RetiredCatalog> retiredCatalogs = new ConcurrentLinkedQueue<>();
+
   public IcebergCatalogHandler(
       AwsGlueConfigBuilder awsGlueConfigBuilder, HadoopConfigBuilder hadoopConfigBuilder) {
+    this(awsGlueConfigBuilder, hadoopConfigBuilder, Duration.ofHours(2), Clock.systemUTC());
+  }
+
+  public IcebergCatalogHandler(
+      AwsGlueConfigBuilder awsGlueConfigBuilder,
+      HadoopConfigBuilder hadoopConfigBuilder,
+      Duration retiredCatalogGracePeriod,
+      Clock clock) {
     this.awsGlueConfigBuilder = awsGlueConfigBuilder;
     this.hadoopConfigBuilder = hadoopConfigBuilder;
+    this.retiredCatalogGracePeriod = retiredCatalogGracePeriod;
+    this.clock = clock;
   }
 
   public Table loadTableWithGlueCatalog(
       Metastore metastore, Storage storage, TableIdentifier tableIdentifier) {
-    try (var catalog = new GlueCatalog()) {
-      catalog.setConf(hadoopConfigBuilder.buildConfig(storage));
-      catalog.initialize(
-          metastore.name(),
-          awsGlueConfigBuilder.buildConfig(
-              (MetastoreProperties.GlueMetastoreProperties) metastore.properties()));
-      return loadTable(catalog, tableIdentifier);
-    } catch (IOException e) {
-      throw new RuntimeException("Unexpected error when closing the Glue catalog", e);
-    }
+    return loadTable(catalog(metastore, storage, this::newGlueCatalog), tableIdentifier);
   }
 
   public Table loadTableWithHadoopCatalog(
       Metastore metastore, Storage storage, TableIdentifier tableIdentifier) {
-    try (var catalog = new HadoopCatalog()) {
-      catalog.setConf(hadoopConfigBuilder.buildConfig(storage));
-      catalog.initialize(
-          metastore.name(),
-          Map.of(
-              CatalogProperties.WAREHOUSE_LOCATION,
-              ((MetastoreProperties.HadoopMetastoreProperties) metastore.properties()).location()));
-      return loadTable(catalog, tableIdentifier);
-    } catch (IOException e) {
-      throw new RuntimeException("Unexpected error when closing the Hadoop catalog", e);
+    return loadTable(catalog(metastore, storage, this::newHadoopCatalog), tableIdentifier);
+  }
+
+  BaseMetastoreCatalog catalog(
+      Metastore metastore,
+      Storage storage,
+      BiFunction<Metastore, Storage, BaseMetastoreCatalog> catalogFactory) {
+    closeExpiredCatalogs();
+    var key = new CatalogKey(metastore.name(), storage.name());
+    var pooled = catalogs.get(key);
+    if (pooled != null && pooled.describes(metastore, storage)) {
+      return pooled.catalog();
+    }
+    // built outside of the map, initializing a catalog may take a while
+    var built = new PooledCatalog(metastore, storage, catalogFactory.apply(metastore, storage));
+    var installed = catalogs.compute(key, (k, current) -> {
+      if (current != null && current.describes(metastore, storage)) {
+        return current;
+      }
+      if (current != null) {
+        retiredCatalogs.add(new RetiredCatalog(current.catalog(), clock.instant()));
+      }
+      return built;
+    });
+    if (installed != built) {
+      // a concurrent request has built the same catalog first
+      closeCatalog(built.catalog());
+    }
+    return installed.catalog();
+  }
+
+  private void closeExpiredCatalogs() {
+    var retiredBefore = clock.instant().minus(retiredCatalogGracePeriod);
+    RetiredCatalog retired;
+    while ((retired = retiredCatalogs.peek()) != null
+        && !retired.retiredAt().isAfter(retiredBefore)) {
+      if (retiredCatalogs.remove(retired)) {
+        closeCatalog(retired.catalog());
+      }
     }
   }
 
+  private BaseMetastoreCatalog newGlueCatalog(Metastore metastore, Storage storage) {
+    var catalog = new GlueCatalog();
+    catalog.setConf(hadoopConfigBuilder.buildConfig(storage));
+    catalog.initialize(
+        metastore.name(),
+        awsGlueConfigBuilder.buildConfig(
+            (MetastoreProperties.GlueMetastoreProperties) metastore.properties()));
+    return catalog;
+  }
+
+  private BaseMetastoreCatalog newHadoopCatalog(Metastore metastore, Storage storage) {
+    var catalog = new HadoopCatalog();
+    catalog.setConf(hadoopConfigBuilder.buildConfig(storage));
+    catalog.initialize(
+        metastore.name(),
+        Map.of(
+            CatalogProperties.WAREHOUSE_LOCATION,
+            ((MetastoreProperties.HadoopMetastoreProperties) metastore.properties()).location()));
+    return catalog;
+  }
+
   private Table loadTable(BaseMetastoreCatalog catalog, TableIdentifier tableIdentifier) {
     try {
       return catalog.loadTable(tableIdentifier);
@@ -67,4 +151,35 @@ public class IcebergCatalogHandler {
           tableIdentifier.name(), tableIdentifier.namespace()));
     }
   }
+
+  private void closeCatalog(BaseMetastoreCatalog catalog) {
+    if (catalog instanceof Closeable closeable) {
+      try {
+        closeable.close();
+      } catch (IOException e) {
+        logger.warn("Unexpected error when closing the catalog " + catalog.name(), e);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    catalogs.values().forEach(pooled -> closeCatalog(pooled.catalog()));
+    catalogs.clear();
+    RetiredCatalog retired;
+    while ((retired = retiredCatalogs.poll()) != null) {
+      closeCatalog(retired.catalog());
+    }
+  }
+
+  private record CatalogKey(String metastoreName, String storageName) {}
+
+  private record PooledCatalog(
+      Metastore metastore, Storage storage, BaseMetastoreCatalog catalog) {
+    private boolean describes(Metastore metastore, Storage storage) {
+      return this.metastore.equals(metastore) && this.storage.equals(storage);
+    }
+  }
+
+  private record RetiredCatalog(BaseMetastoreCatalog catalog, Instant retiredAt) {}
 }
@@ -1,12 +1,19 @@
 package io.whitefox.core.services;
 
 import io.whitefox.core.*;
+import io.whitefox.core.configuration.QueryExecutorService;
 import io.whitefox.core.services.capabilities.ResponseFormat;
+import io.whitefox.core.types.predicates.IcebergExpressions;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.Timestamp;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
+import org.apache.iceberg.FileScanTask;
 import org.apache.iceberg.PartitionField;
+import org.apache.iceberg.Schema;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.Table;
 import org.apache.iceberg.util.SnapshotUtil;
@@ -16,23 +23,26 @@ public class IcebergSharedTable implements InternalSharedTable {
   private final Table icebergTable;
   private final TableSchemaConverter tableSchemaConverter;
   private final SharedTable tableDetails;
-  private final FileIOFactory fileIOFactory;
   private final IcebergFileStatsBuilder icebergFileStatsBuilder;
   private final IcebergPartitionValuesBuilder icebergPartitionValuesBuilder;
+  private final ReadTableResultCache readTableResultCache;
+  private final QueryExecutorService queryExecutor;
 
   private IcebergSharedTable(
       Table icebergTable,
       TableSchemaConverter tableSchemaConverter,
       SharedTable tableDetails,
-      FileIOFactory fileIOFactory,
       IcebergFileStatsBuilder icebergFileStatsBuilder,
-      IcebergPartitionValuesBuilder icebergPartitionValuesBuilder) {
+      IcebergPartitionValuesBuilder icebergPartitionValuesBuilder,
+      ReadTableResultCache readTableResultCache,
+      QueryExecutorService queryExecutor) {
     this.icebergTable = icebergTable;
     this.tableSchemaConverter = tableSchemaConverter;
     this.tableDetails = tableDetails;
-    this.fileIOFactory = fileIOFactory;
     this.icebergFileStatsBuilder = icebergFileStatsBuilder;
     this.icebergPartitionValuesBuilder = icebergPartitionValuesBuilder;
+    this.readTableResultCache = readTableResultCache;
+    this.queryExecutor = queryExecutor;
   }
 
   public static IcebergSharedTable of(
@@ -45,9 +55,10 @@ public class IcebergSharedTable implements InternalSharedTable {
         icebergTable,
         tableSchemaConverter,
         tableDetails,
-        new FileIOFactoryImpl(),
         icebergFileStatsBuilder,
-        icebergPartitionValuesBuilder);
+        icebergPartitionValuesBuilder,
+        new ReadTableResultCache(),
+        new QueryExecutorService());
   }
 
   public static IcebergSharedTable of(
@@ -55,13 +66,30 @@ public class IcebergSharedTable implements InternalSharedTable {
       SharedTable tableDetails,
       IcebergFileStatsBuilder icebergFileStatsBuilder,
       IcebergPartitionValuesBuilder icebergPartitionValuesBuilder) {
+    return of(
+        icebergTable,
+        tableDetails,
+        icebergFileStatsBuilder,
+        icebergPartitionValuesBuilder,
+        new ReadTableResultCache(),
+        new QueryExecutorService());
+  }
+
+  public static IcebergSharedTable of(
+      Table icebergTable,
+      SharedTable tableDetails,
+      IcebergFileStatsBuilder icebergFileStatsBuilder,
+      IcebergPartitionValuesBuilder icebergPartitionValuesBuilder,
+      ReadTableResultCache readTableResultCache,
+      QueryExecutorService queryExecutor) {
     return new IcebergSharedTable(
         icebergTable,
         new TableSchemaConverter(),
         tableDetails,
-        new FileIOFactoryImpl(),
         icebergFileStatsBuilder,
-        icebergPartitionValuesBuilder);
+        icebergPartitionValuesBuilder,
+        readTableResultCache,
+        queryExecutor);
   }
 
   public Optional<Metadata> getMetadata(Optional<Timestamp> startingTimestamp) {
@@ -121,12 +149,37 @@ public class IcebergSharedTable implements InternalSharedTable {
     } else {
       throw new IllegalArgumentException("Unknown ReadTableRequest type: " + readTableRequest);
     }
-    try (var s3FileIO =
-        fileIOFactory.newFileIO(tableDetails.internalTable().provider().storage())) {
+    return readTableResultCache.get(
+        tableDetails,
+        snapshot.snapshotId(),
+        readTableRequest,
+        () -> queryTable(snapshot, readTableRequest));
+  }
+
+  /**
+   * Lists all the data files of {@code snapshot} through a table scan, which skips the manifests,
+   * partitions and files that cannot match the predicate hints and reads the remaining manifests
+   * in parallel.
+   */
+  private ReadTableResultToBeSigned queryTable(
+      Snapshot snapshot, ReadTableRequest readTableRequest) {
+    var metadata = getMetadataFromSnapshot(snapshot);
+    var predicates = CompiledPredicates.compile(
+        readTableRequest.jsonPredicateHints(), readTableRequest.predicateHints(), metadata);
+    var scan = icebergTable
+        .newScan()
+        .useSnapshot(snapshot.snapshotId())
+        .filter(IcebergExpressions.of(predicates.predicates(), schemaOf(snapshot)))
+        .includeColumnStats()
+        .planWith(queryExecutor);
+    try (var tasks = scan.planFiles()) {
       return new ReadTableResultToBeSigned(
           new Protocol(Optional.of(1)),
-          getMetadataFromSnapshot(snapshot),
-          StreamSupport.stream(snapshot.addedDataFiles(s3FileIO).spliterator(), false)
+          metadata,
+          RecordsLimit.apply(
+                  readTableRequest,
+                  StreamSupport.stream(tasks.spliterator(), false).map(FileScanTask::file),
+                  dataFile -> OptionalLong.of(dataFile.recordCount()))
               .map(dataFile -> new TableFileToBeSigned(
                   dataFile.path().toString(),
                   dataFile.fileSizeInBytes(),
@@ -140,8 +193,17 @@ public class IcebergSharedTable implements InternalSharedTable {
                       dataFile.nullValueCounts()),
                   icebergPartitionValuesBuilder.buildPartitionValues(
                       icebergTable.spec().partitionType().fields(), dataFile.partition())))
-              .collect(Collectors.toList()),
+              .collect(Collectors.toList())
+              .stream(),
           snapshot.sequenceNumber());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
   }
+
+  private Schema schemaOf(Snapshot snapshot) {
+    return Optional.ofNullable(snapshot.schemaId())
+        .map(icebergTable.schemas()::get)
+        .orElseGet(icebergTable::schema);
+  }
 }
@@ -0,0 +1,141 @@
+package io.whitefox.core.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.whitefox.core.Metastore;
+import io.whitefox.core.Storage;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.function.Supplier;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.catalog.TableIdentifier;
+import org.apache.log4j.Logger;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Cache of loaded iceberg tables keyed by metastore, storage and table identifier.
+ * <p>
+ * A cached table is reused as it is until its freshness window expires, then it is refreshed with
+ * {@link Table#refresh()}, which reads the new metadata file only when the metadata pointer of
+ * the table has moved. In strict mode the pointer is checked on every access instead.
+ * <p>
+ * Both settings can be overridden for a single table through the
+ * {@value #FRESHNESS_WINDOW_PROPERTY} and {@value #STRICT_PROPERTY} iceberg table properties.
+ */
+@ApplicationScoped
+public class IcebergTableCache {
+
+  public static final String FRESHNESS_WINDOW_PROPERTY = "whitefox.cache.freshness-window";
+  public static final String STRICT_PROPERTY = "whitefox.cache.strict";
+
+  private final Logger logger = Logger.getLogger(this.getClass());
+
+  private final Cache<Key, CachedTable> cache;
+  private final Duration defaultFreshnessWindow;
+  private final boolean defaultStrict;
+  private final Clock clock;
+
+  // For CDI 2.0 to work
+  public IcebergTableCache() {
+    this(1000L, Duration.ofHours(1), Duration.ofSeconds(30), false, Clock.systemUTC());
+  }
+
+  @Inject
+  public IcebergTableCache(
+      @ConfigProperty(name = "whitefox.server.cache.iceberg-table.max-size", defaultValue = "1000")
+          long maxSize,
+      @ConfigProperty(
+              name = "whitefox.server.cache.iceberg-table.expire-after-access",
+              defaultValue = "PT1H")
+          Duration expireAfterAccess,
+      @ConfigProperty(
+              name = "whitefox.server.cache.iceberg-table.freshness-window",
+              defaultValue = "PT30S")
+          Duration defaultFreshnessWindow,
+      @ConfigProperty(name = "whitefox.server.cache.iceberg-table.strict", defaultValue = "false")
+          boolean defaultStrict,
+      Clock clock) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterAccess(expireAfterAccess)
+        .recordStats()
+        .build();
+    this.defaultFreshnessWindow = defaultFreshnessWindow;
+    this.defaultStrict = defaultStrict;
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the cached table, refreshing it if it is stale, or loads it with {@code loader} when
+   * it is not cached yet.
+   */
+  public Table getTable(
+      Metastore metastore,
+      Storage storage,
+      TableIdentifier tableIdentifier,
+      Supplier<Table> loader) {
+    var key = new Key(metastore, storage, tableIdentifier);
+    var cached = cache.getIfPresent(key);
+    if (cached == null) {
+      // asMap() does not record statistics, the miss has already been counted above
+      return cache
+          .asMap()
+          .computeIfAbsent(key, k -> new CachedTable(loader.get(), clock.millis()))
+          .table();
+    }
+    return cached.refreshIfStale();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  private Duration freshnessWindow(Table table) {
+    var configured = table.properties().get(FRESHNESS_WINDOW_PROPERTY);
+    if (configured == null) {
+      return defaultFreshnessWindow;
+    }
+    try {
+      return Duration.parse(configured);
+    } catch (DateTimeParseException e) {
+      logger.warn(String.format(
+          "Invalid %s [%s] for table %s, using the default one",
+          FRESHNESS_WINDOW_PROPERTY, configured, table.name()));
+      return defaultFreshnessWindow;
+    }
+  }
+
+  private boolean strict(Table table) {
+    var configured = table.properties().get(STRICT_PROPERTY);
+    return configured == null ? defaultStrict : Boolean.parseBoolean(configured);
+  }
+
+  private final class CachedTable {
+    private final Table table;
+    private long refreshedAt;
+
+    private CachedTable(Table table, long refreshedAt) {
+      this.table = table;
+      this.refreshedAt = refreshedAt;
+    }
+
+    private Table table() {
+      return table;
+    }
+
+    private synchronized Table refreshIfStale() {
+      var now = clock.millis();
+      if (strict(table) || now - refreshedAt >= freshnessWindow(table).toMillis()) {
+        table.refresh();
+        refreshedAt = now;
+      }
+      return table;
+    }
+  }
+
+  private record Key(Metastore metastore, Storage storage, TableIdentifier tableIdentifier) {}
+}
@@ -2,14 +2,33 @@ package io.whitefox.core.services;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.whitefox.core.*;
+import io.whitefox.core.configuration.QueryExecutorService;
 import org.apache.iceberg.catalog.TableIdentifier;
 
 public class IcebergTableLoader implements TableLoader {
 
   private final IcebergCatalogHandler icebergCatalogHandler;
+  private final IcebergTableCache icebergTableCache;
+  private final ReadTableResultCache readTableResultCache;
+  private final QueryExecutorService queryExecutor;
 
   public IcebergTableLoader(IcebergCatalogHandler icebergCatalogHandler) {
+    this(
+        icebergCatalogHandler,
+        new IcebergTableCache(),
+        new ReadTableResultCache(),
+        new QueryExecutorService());
+  }
+
+  public IcebergTableLoader(
+      IcebergCatalogHandler icebergCatalogHandler,
+      IcebergTableCache icebergTableCache,
+      ReadTableResultCache readTableResultCache,
+      QueryExecutorService queryExecutor) {
     this.icebergCatalogHandler = icebergCatalogHandler;
+    this.icebergTableCache = icebergTableCache;
+    this.readTableResultCache = readTableResultCache;
+    this.queryExecutor = queryExecutor;
   }
 
   @Override
@@ -20,18 +39,29 @@ public class IcebergTableLoader implements TableLoader {
       var tableId = getTableIdentifier(sharedTable.internalTable());
       if (metastore.type() == MetastoreType.GLUE) {
         return IcebergSharedTable.of(
-            icebergCatalogHandler.loadTableWithGlueCatalog(
-                metastore, sharedTable.internalTable().provider().storage(), tableId),
+            icebergTableCache.getTable(
+                metastore,
+                storage,
+                tableId,
+                () -> icebergCatalogHandler.loadTableWithGlueCatalog(metastore, storage, tableId)),
             sharedTable,
             new IcebergFileStatsBuilder(new ObjectMapper().writer()),
-            new IcebergPartitionValuesBuilder());
+            new IcebergPartitionValuesBuilder(),
+            readTableResultCache,
+            queryExecutor);
       } else if (metastore.type() == MetastoreType.HADOOP) {
         return IcebergSharedTable.of(
-            icebergCatalogHandler.loadTableWithHadoopCatalog(
-                metastore, sharedTable.internalTable().provider().storage(), tableId),
+            icebergTableCache.getTable(
+                metastore,
+                storage,
+                tableId,
+                () -> icebergCatalogHandler.loadTableWithHadoopCatalog(
+                    metastore, storage, tableId)),
             sharedTable,
             new IcebergFileStatsBuilder(new ObjectMapper().writer()),
-            new IcebergPartitionValuesBuilder());
+            new IcebergPartitionValuesBuilder(),
+            readTableResultCache,
+            queryExecutor);
       } else {
         throw new RuntimeException(
             String.format("Unsupported metastore type: [%s]", metastore.type()));
@@ -0,0 +1,174 @@
+package io.whitefox.core.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Cache of presigned URLs keyed by storage, credentials, bucket and object key.
+ * <p>
+ * A presigned URL grants access to its object to whoever holds it, so a URL signed for a query is
+ * served to the following queries on the same storage as long as it is valid for long enough. An
+ * entry is evicted once its remaining lifetime falls below {@code min-remaining-ratio} of its
+ * signature duration, half of it by default, so that clients always get at least that much time
+ * to download a file, however long the URLs of their share last, and the expiration of the URL is
+ * cached along with it. URLs signed for different durations are cached apart.
+ * <p>
+ * The URLs are also cached apart by the generation of the credentials of the storage they were
+ * signed with, so that a signer still using replaced credentials cannot serve its URLs to the
+ * signers using the new ones.
+ */
+@ApplicationScoped
+public class PresignedUrlCache {
+
+  private final double minRemainingRatio;
+  private final Clock clock;
+  private final Cache<Key, PresignedUrl> cache;
+
+  // For CDI 2.0 to work
+  public PresignedUrlCache() {
+    this(100_000L, 0.5, Clock.systemUTC());
+  }
+
+  @Inject
+  public PresignedUrlCache(
+      @ConfigProperty(
+              name = "whitefox.server.cache.presigned-url.max-size",
+              defaultValue = "100000")
+          long maxSize,
+      @ConfigProperty(
+              name = "whitefox.server.cache.presigned-url.min-remaining-ratio",
+              defaultValue = "0.5")
+          double minRemainingRatio,
+      Clock clock) {
+    if (!(minRemainingRatio > 0 && minRemainingRatio < 1)) {
+      throw new IllegalArgumentException(String.format(
+          "whitefox.server.cache.presigned-url.min-remaining-ratio must be between 0 and 1, %s"
+              + " was provided",
+          minRemainingRatio));
+    }
+    this.minRemainingRatio = minRemainingRatio;
+    this.clock = clock;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(Expiry.<Key, PresignedUrl>creating((key, url) -> {
+          var reusableFor = Duration.between(clock.instant(), url.expiration())
+              .minus(minRemainingLifetime(key.signatureDuration()));
+          return reusableFor.isNegative() ? Duration.ZERO : reusableFor;
+        }))
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * The remaining lifetime of the URLs signed for {@code signatureDuration} that are served by the
+   * cache, at least.
+   */
+  public Duration minRemainingLifetime(Duration signatureDuration) {
+    return Duration.ofMillis((long) (signatureDuration.toMillis() * minRemainingRatio));
+  }
+
+  /**
+   * The time before which the URLs signed for {@code signatureDuration} that are served now
+   * should be refreshed, as they may expire right after it.
+   */
+  public Instant refreshBefore(Duration signatureDuration) {
+    return clock.instant().plus(minRemainingLifetime(signatureDuration));
+  }
+
+  /**
+   * Returns the cached URL of {@code objectKey} signed with the {@code credentialsGeneration} of
+   * the storage for {@code signatureDuration}, signing it with {@code sign} when it is not cached
+   * or is about to expire.
+   */
+  public PresignedUrl get(
+      String storage,
+      long credentialsGeneration,
+      Duration signatureDuration,
+      String bucket,
+      String objectKey,
+      Supplier<PresignedUrl> sign) {
+    return cache.get(
+        new Key(storage, credentialsGeneration, signatureDuration, bucket, objectKey),
+        k -> sign.get());
+  }
+
+  /**
+   * Returns the cached URLs of {@code objects} signed with the {@code credentialsGeneration} of
+   * the storage for {@code signatureDuration}, signing the ones that are not cached or are about
+   * to expire all at once with {@code signAll}.
+   */
+  public Map<ObjectLocation, PresignedUrl> getAll(
+      String storage,
+      long credentialsGeneration,
+      Duration signatureDuration,
+      Collection<ObjectLocation> objects,
+      Function<Set<ObjectLocation>, Map<ObjectLocation, PresignedUrl>> signAll) {
+    var urls = cache.getAll(
+        objects.stream()
+            .map(object -> Key.of(storage, credentialsGeneration, signatureDuration, object))
+            .collect(Collectors.toList()),
+        missing -> signAll
+            .apply(missing.stream().map(Key::object).collect(Collectors.toSet()))
+            .entrySet()
+            .stream()
+            .collect(Collectors.toMap(
+                e -> Key.of(storage, credentialsGeneration, signatureDuration, e.getKey()),
+                Map.Entry::getValue)));
+    return urls.entrySet().stream()
+        .collect(Collectors.toMap(e -> e.getKey().object(), Map.Entry::getValue));
+  }
+
+  /**
+   * Evicts the URLs of {@code storage} signed with the credentials up to
+   * {@code credentialsGeneration}, to be called when they are no longer valid.
+   */
+  public void invalidate(String storage, long credentialsGeneration) {
+    cache
+        .asMap()
+        .keySet()
+        .removeIf(key -> key.storage().equals(storage)
+            && key.credentialsGeneration() <= credentialsGeneration);
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  public record PresignedUrl(String url, Instant expiration) {}
+
+  public record ObjectLocation(String bucket, String objectKey) {}
+
+  private record Key(
+      String storage,
+      long credentialsGeneration,
+      Duration signatureDuration,
+      String bucket,
+      String objectKey) {
+    private static Key of(
+        String storage,
+        long credentialsGeneration,
+        Duration signatureDuration,
+        ObjectLocation object) {
+      return new Key(
+          storage, credentialsGeneration, signatureDuration, object.bucket(), object.objectKey());
+    }
+
+    private ObjectLocation object() {
+      return new ObjectLocation(bucket, objectKey);
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package io.whitefox.core.services;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import software.amazon.awssdk.utils.http.SdkHttpUtils;
+
+/**
+ * Presigns the S3 GET URLs of the objects of a bucket like a reference URL presigned by the SDK.
+ * <p>
+ * The URLs presigned by the SDK for the objects of a bucket at the same time only differ in their
+ * path and their SigV4 signature. The canonical query string, the credential scope and the
+ * signing key are taken from the reference URL once, so that presigning an object only takes a
+ * SHA-256 of its canonical request and a HMAC of the string to sign. A template is only built when
+ * it reproduces the signature of its reference URL, otherwise the SDK must be used.
+ * <p>
+ * A template is not thread safe.
+ */
+final class PresignedUrlTemplate {
+
+  private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+  private static final String HMAC = "HmacSHA256";
+  private static final String SIGNATURE_PARAMETER = "&X-Amz-Signature=";
+  private static final HexFormat HEX = HexFormat.of();
+
+  private final String baseUrl;
+  private final String pathPrefix;
+  private final String unsignedQuery;
+  private final String canonicalRequestSuffix;
+  private final String stringToSignPrefix;
+  private final Mac mac;
+  private final MessageDigest sha256;
+  private final StringBuilder buffer = new StringBuilder(512);
+
+  private PresignedUrlTemplate(
+      String baseUrl,
+      String pathPrefix,
+      String unsignedQuery,
+      String canonicalRequestSuffix,
+      String stringToSignPrefix,
+      Mac mac,
+      MessageDigest sha256) {
+    this.baseUrl = baseUrl;
+    this.pathPrefix = pathPrefix;
+    this.unsignedQuery = unsignedQuery;
+    this.canonicalRequestSuffix = canonicalRequestSuffix;
+    this.stringToSignPrefix = stringToSignPrefix;
+    this.mac = mac;
+    this.sha256 = sha256;
+  }
+
+  /**
+   * Builds the template of {@code referenceUrl}, the URL presigned by the SDK for
+   * {@code objectKey} with the credentials whose secret is {@code secretAccessKey}, empty when the
+   * URL is not laid out as expected or its signature cannot be reproduced.
+   */
+  static Optional<PresignedUrlTemplate> of(
+      String referenceUrl, String objectKey, String secretAccessKey) {
+    var encodedPath = "/" + SdkHttpUtils.urlEncodeIgnoreSlashes(objectKey);
+    var queryStart = referenceUrl.indexOf('?');
+    var signatureStart = referenceUrl.lastIndexOf(SIGNATURE_PARAMETER);
+    if (queryStart < 0
+        || signatureStart < queryStart
+        || !referenceUrl.substring(0, queryStart).endsWith(encodedPath)) {
+      return Optional.empty();
+    }
+    var base = referenceUrl.substring(0, queryStart - encodedPath.length());
+    var unsignedQuery = referenceUrl.substring(queryStart + 1, signatureStart);
+    var signature = referenceUrl.substring(signatureStart + SIGNATURE_PARAMETER.length());
+    URI baseUri;
+    try {
+      baseUri = URI.create(base);
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+    if (baseUri.getRawAuthority() == null || baseUri.getRawQuery() != null) {
+      return Optional.empty();
+    }
+    var parameters = unsignedQuery.split("&");
+    var amzDate = parameter(parameters, "X-Amz-Date");
+    var credential = parameter(parameters, "X-Amz-Credential");
+    if (!ALGORITHM.equals(parameter(parameters, "X-Amz-Algorithm"))
+        || !"host".equals(parameter(parameters, "X-Amz-SignedHeaders"))
+        || amzDate == null
+        || credential == null) {
+      return Optional.empty();
+    }
+    // access key id/date/region/service/aws4_request
+    var credentialParts = SdkHttpUtils.urlDecode(credential).split("/", 2);
+    var scope = credentialParts.length == 2 ? credentialParts[1].split("/") : new String[0];
+    if (scope.length != 4) {
+      return Optional.empty();
+    }
+    Arrays.sort(parameters);
+    var host =
+        baseUri.getPort() < 0 ? baseUri.getHost() : baseUri.getHost() + ":" + baseUri.getPort();
+    var pathPrefix = baseUri.getRawPath() == null ? "" : baseUri.getRawPath();
+    try {
+      // date, region, service and terminator of the scope, derived once for all the objects
+      var signingKey = ("AWS4" + secretAccessKey).getBytes(StandardCharsets.UTF_8);
+      for (String scopePart : scope) {
+        signingKey = hmac(signingKey, scopePart);
+      }
+      var mac = Mac.getInstance(HMAC);
+      mac.init(new SecretKeySpec(signingKey, HMAC));
+      var template = new PresignedUrlTemplate(
+          base,
+          pathPrefix,
+          unsignedQuery,
+          "\n" + String.join("&", parameters) + "\nhost:" + host + "\n\nhost\nUNSIGNED-PAYLOAD",
+          ALGORITHM + "\n" + amzDate + "\n" + credentialParts[1] + "\n",
+          mac,
+          MessageDigest.getInstance("SHA-256"));
+      return Optional.of(template).filter(t -> t.signature(encodedPath).equals(signature));
+    } catch (GeneralSecurityException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Presigns {@code objectKey}, in the same bucket and with the same signing time and expiration
+   * of the reference URL.
+   */
+  String presign(String objectKey) {
+    var encodedPath = "/" + SdkHttpUtils.urlEncodeIgnoreSlashes(objectKey);
+    var signature = signature(encodedPath);
+    buffer.setLength(0);
+    return buffer
+        .append(baseUrl)
+        .append(encodedPath)
+        .append('?')
+        .append(unsignedQuery)
+        .append(SIGNATURE_PARAMETER)
+        .append(signature)
+        .toString();
+  }
+
+  private String signature(String encodedPath) {
+    buffer.setLength(0);
+    buffer.append("GET\n").append(pathPrefix).append(encodedPath).append(canonicalRequestSuffix);
+    var canonicalRequestHash = sha256.digest(buffer.toString().getBytes(StandardCharsets.UTF_8));
+    buffer.setLength(0);
+    HEX.formatHex(buffer.append(stringToSignPrefix), canonicalRequestHash);
+    return HEX.formatHex(mac.doFinal(buffer.toString().getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static String parameter(String[] parameters, String name) {
+    var prefix = name + "=";
+    for (String parameter : parameters) {
+      if (parameter.startsWith(prefix)) {
+        return parameter.substring(prefix.length());
+      }
+    }
+    return null;
+  }
+
+  private static byte[] hmac(byte[] key, String data) throws GeneralSecurityException {
+    var mac = Mac.getInstance(HMAC);
+    mac.init(new SecretKeySpec(key, HMAC));
+    return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,138 @@
+package io.whitefox.core.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Index from the ids of the files returned by the queries of the recently queried versions of the
+ * tables to their paths, so that their URLs can be presigned again without reading the table.
+ * <p>
+ * The queries of a version add the files they return to the same index of the version as they
+ * sign them, without copying it, so a file already returned by a previous query costs a lookup.
+ * Up to {@code max-files-per-version} files are indexed for each version, the ids of the others
+ * are left out of the refreshed files and their clients query the table again. The index is bounded
+ * by the number of files of all the versions, {@code max-files}, and a version is evicted once it
+ * is not queried nor refreshed for {@code expire-after-access}, which should be longer than the
+ * duration of the URLs.
+ */
+@ApplicationScoped
+public class QueriedFilesIndex {
+
+  private final long maxFilesPerVersion;
+  private final Cache<Key, ConcurrentMap<String, String>> cache;
+
+  // For CDI 2.0 to work
+  public QueriedFilesIndex() {
+    this(2_000_000L, 200_000L, Duration.ofHours(6));
+  }
+
+  @Inject
+  public QueriedFilesIndex(
+      @ConfigProperty(
+              name = "whitefox.server.cache.queried-files.max-files",
+              defaultValue = "2000000")
+          long maxFiles,
+      @ConfigProperty(
+              name = "whitefox.server.cache.queried-files.max-files-per-version",
+              defaultValue = "200000")
+          long maxFilesPerVersion,
+      @ConfigProperty(
+              name = "whitefox.server.cache.queried-files.expire-after-access",
+              defaultValue = "PT6H")
+          Duration expireAfterAccess) {
+    // a version larger than the whole index would be evicted right away
+    if (maxFilesPerVersion <= 0 || maxFilesPerVersion >= maxFiles) {
+      throw new IllegalArgumentException(String.format(
+          "whitefox.server.cache.queried-files.max-files-per-version must be positive and lower"
+              + " than max-files %d, %d was provided",
+          maxFiles, maxFilesPerVersion));
+    }
+    this.maxFilesPerVersion = maxFilesPerVersion;
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maxFiles)
+        .<Key, ConcurrentMap<String, String>>weigher((key, paths) -> paths.size())
+        .expireAfterAccess(expireAfterAccess)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns a recorder of the files returned by a query of {@code version} of the table, which are
+   * indexed as they are recorded.
+   */
+  public Recorder recorder(String share, String schema, String table, long version) {
+    var key = new Key(share, schema, table, version);
+    return new Recorder(key, cache.get(key, k -> new ConcurrentHashMap<>()));
+  }
+
+  /**
+   * Returns the paths of the files of {@code version} of the table with the given {@code ids},
+   * leaving out the ids that are not indexed.
+   */
+  public Map<String, String> paths(
+      String share, String schema, String table, long version, Collection<String> ids) {
+    var paths = cache.getIfPresent(new Key(share, schema, table, version));
+    if (paths == null) {
+      return Map.of();
+    }
+    var found = new HashMap<String, String>();
+    for (String id : ids) {
+      var path = paths.get(id);
+      if (path != null) {
+        found.put(id, path);
+      }
+    }
+    return found;
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /**
+   * Collects the files of a query, it is called concurrently by the threads signing them.
+   */
+  public final class Recorder implements AutoCloseable {
+
+    private final Key key;
+    private final ConcurrentMap<String, String> paths;
+    private final AtomicBoolean added = new AtomicBoolean();
+
+    private Recorder(Key key, ConcurrentMap<String, String> paths) {
+      this.key = key;
+      this.paths = paths;
+    }
+
+    public void record(String id, String path) {
+      if (!paths.containsKey(id)
+          && paths.size() < maxFilesPerVersion
+          && paths.putIfAbsent(id, path) == null) {
+        added.set(true);
+      }
+    }
+
+    /**
+     * Weighs the index of the version again with the files added by the query, unless it has been
+     * evicted in the meantime.
+     */
+    @Override
+    public void close() {
+      if (added.get()) {
+        cache.asMap().replace(key, paths, paths);
+      }
+    }
+  }
+
+  private record Key(String share, String schema, String table, long version) {}
+}
@@ -0,0 +1,114 @@
+package io.whitefox.core.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.whitefox.core.Metadata;
+import io.whitefox.core.Protocol;
+import io.whitefox.core.ReadTableHints;
+import io.whitefox.core.ReadTableRequest;
+import io.whitefox.core.ReadTableResultToBeSigned;
+import io.whitefox.core.SharedTable;
+import io.whitefox.core.TableFileToBeSigned;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Cache of the unsigned results of {@link InternalSharedTable#queryTable(ReadTableRequest)}.
+ * <p>
+ * Results are keyed by table, resolved snapshot version and normalized query hints, so requests
+ * asking for the same snapshot with equivalent predicates share the same entry no matter how the
+ * snapshot was selected. A snapshot never changes, therefore entries are never stale and are
+ * only evicted by size, measured in number of files, or by inactivity. Signing is not cached and
+ * happens on every request.
+ * <p>
+ * The files of a result are collected when it is cached, so tables too large to be held in memory
+ * are expected to bypass the cache and stream their files instead.
+ */
+@ApplicationScoped
+public class ReadTableResultCache {
+
+  private final Cache<Key, Entry> cache;
+
+  // For CDI 2.0 to work
+  public ReadTableResultCache() {
+    this(100_000L, Duration.ofMinutes(10));
+  }
+
+  @Inject
+  public ReadTableResultCache(
+      @ConfigProperty(
+              name = "whitefox.server.cache.read-table-result.max-files",
+              defaultValue = "100000")
+          long maxFiles,
+      @ConfigProperty(
+              name = "whitefox.server.cache.read-table-result.expire-after-access",
+              defaultValue = "PT10M")
+          Duration expireAfterAccess) {
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maxFiles)
+        .<Key, Entry>weigher((key, entry) -> 1 + entry.files().size())
+        .expireAfterAccess(expireAfterAccess)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns the cached result of {@code readTableRequest} on the snapshot identified by
+   * {@code version}, computing it with {@code query} when it is not cached yet.
+   */
+  public ReadTableResultToBeSigned get(
+      SharedTable sharedTable,
+      long version,
+      ReadTableRequest readTableRequest,
+      Supplier<ReadTableResultToBeSigned> query) {
+    return cache
+        .get(Key.of(sharedTable, version, readTableRequest), k -> Entry.of(query.get()))
+        .result();
+  }
+
+  /**
+   * Returns the cached result of {@code readTableRequest} on the snapshot identified by
+   * {@code version}, empty when it is not cached.
+   */
+  public Optional<ReadTableResultToBeSigned> getIfPresent(
+      SharedTable sharedTable, long version, ReadTableRequest readTableRequest) {
+    return Optional.ofNullable(cache.getIfPresent(Key.of(sharedTable, version, readTableRequest)))
+        .map(Entry::result);
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  private record Key(SharedTable sharedTable, long version, ReadTableHints hints) {
+
+    private static Key of(SharedTable sharedTable, long version, ReadTableRequest request) {
+      return new Key(sharedTable, version, ReadTableHints.of(request));
+    }
+  }
+
+  private record Entry(
+      Protocol protocol, Metadata metadata, List<TableFileToBeSigned> files, long version) {
+
+    private static Entry of(ReadTableResultToBeSigned result) {
+      try (var files = result.other()) {
+        return new Entry(
+            result.protocol(),
+            result.metadata(),
+            files.collect(Collectors.toUnmodifiableList()),
+            result.version());
+      }
+    }
+
+    private ReadTableResultToBeSigned result() {
+      return new ReadTableResultToBeSigned(protocol, metadata, files.stream(), version);
+    }
+  }
+}
@@ -4,43 +4,137 @@ import io.whitefox.core.TableFile;
 import io.whitefox.core.TableFileIdHashFunction;
 import io.whitefox.core.TableFileToBeSigned;
 import java.net.URI;
-import java.net.URL;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 
+/**
+ * Signs the files of a S3 storage, reusing the URLs cached in {@link PresignedUrlCache} that are
+ * still valid for long enough.
+ * <p>
+ * When signing a batch, the SDK presigns a single file of each bucket and the others are presigned
+ * from a {@link PresignedUrlTemplate} of its URL, which derives the signing key once and skips
+ * building the SDK requests and running its interceptors for each file.
+ */
 public class S3FileSigner implements FileSigner {
 
+  private final String storageName;
+  private final long credentialsGeneration;
   private final S3Presigner s3Presigner;
+  private final String secretAccessKey;
+  private final Duration signatureDuration;
   private final TableFileIdHashFunction tableFileIdHashFunction;
+  private final PresignedUrlCache presignedUrlCache;
+  private final Runnable onClose;
 
-  public S3FileSigner(S3Presigner s3Presigner, TableFileIdHashFunction tableFileIdHashFunction) {
+  public S3FileSigner(
+      String storageName,
+      long credentialsGeneration,
+      S3Presigner s3Presigner,
+      String secretAccessKey,
+      Duration signatureDuration,
+      TableFileIdHashFunction tableFileIdHashFunction,
+      PresignedUrlCache presignedUrlCache,
+      Runnable onClose) {
+    this.storageName = storageName;
+    this.credentialsGeneration = credentialsGeneration;
     this.s3Presigner = s3Presigner;
+    this.secretAccessKey = secretAccessKey;
+    this.signatureDuration = signatureDuration;
     this.tableFileIdHashFunction = tableFileIdHashFunction;
+    this.presignedUrlCache = presignedUrlCache;
+    this.onClose = onClose;
   }
 
   @Override
   public TableFile sign(TableFileToBeSigned s) {
+    var location = location(s);
+    var presignedUrl = presignedUrlCache.get(
+        storageName,
+        credentialsGeneration,
+        signatureDuration,
+        location.bucket(),
+        location.objectKey(),
+        () -> buildPresignedUrl(location.bucket(), location.objectKey(), signatureDuration));
+    return tableFile(s, presignedUrl);
+  }
+
+  @Override
+  public List<TableFile> signAll(List<TableFileToBeSigned> files) {
+    var locations = files.stream().map(this::location).collect(Collectors.toList());
+    var presignedUrls = presignedUrlCache.getAll(
+        storageName, credentialsGeneration, signatureDuration, locations, this::presignAll);
+    var signed = new ArrayList<TableFile>(files.size());
+    for (int i = 0; i < files.size(); i++) {
+      signed.add(tableFile(files.get(i), presignedUrls.get(locations.get(i))));
+    }
+    return signed;
+  }
+
+  /**
+   * URLs served from the cache are valid at least for its minimum remaining lifetime, freshly
+   * signed ones for the whole signature duration.
+   */
+  @Override
+  public Optional<Instant> refreshBefore() {
+    return Optional.of(presignedUrlCache.refreshBefore(signatureDuration));
+  }
+
+  private Map<PresignedUrlCache.ObjectLocation, PresignedUrlCache.PresignedUrl> presignAll(
+      Set<PresignedUrlCache.ObjectLocation> locations) {
+    var presigned = new HashMap<PresignedUrlCache.ObjectLocation, PresignedUrlCache.PresignedUrl>(
+        locations.size() * 2);
+    var byBucket = locations.stream()
+        .collect(Collectors.groupingBy(PresignedUrlCache.ObjectLocation::bucket));
+    for (var bucketLocations : byBucket.values()) {
+      var reference = bucketLocations.get(0);
+      var referenceUrl =
+          buildPresignedUrl(reference.bucket(), reference.objectKey(), signatureDuration);
+      presigned.put(reference, referenceUrl);
+      if (bucketLocations.size() == 1) {
+        continue;
+      }
+      var template =
+          PresignedUrlTemplate.of(referenceUrl.url(), reference.objectKey(), secretAccessKey);
+      for (var location : bucketLocations.subList(1, bucketLocations.size())) {
+        // the URLs of a template share the signing time, and so the expiration, of the reference
+        presigned.put(
+            location,
+            template
+                .map(t -> new PresignedUrlCache.PresignedUrl(
+                    t.presign(location.objectKey()), referenceUrl.expiration()))
+                .orElseGet(() -> buildPresignedUrl(
+                    location.bucket(), location.objectKey(), signatureDuration)));
+      }
+    }
+    return presigned;
+  }
+
+  private PresignedUrlCache.ObjectLocation location(TableFileToBeSigned s) {
     URI absPath = URI.create(s.url());
-    String bucketName = absPath.getHost();
-    String keyName = stripPrefix(absPath.getPath(), "/");
-    Duration duration = Duration.ofHours(1);
-    Date expirationDate = new Date(Instant.now().plus(duration).toEpochMilli());
+    return new PresignedUrlCache.ObjectLocation(
+        absPath.getHost(), stripPrefix(absPath.getPath(), "/"));
+  }
 
-    URL presignedUrl = buildPresignedUrl(bucketName, keyName, duration);
+  private TableFile tableFile(TableFileToBeSigned s, PresignedUrlCache.PresignedUrl presignedUrl) {
     return new TableFile(
-        presignedUrl.toString(),
-        tableFileIdHashFunction.hash(s.url()),
+        presignedUrl.url(),
+        s.id(tableFileIdHashFunction),
         s.size(),
         Optional.of(s.version()),
         s.timestamp(),
         s.partitionValues(),
-        expirationDate.getTime(),
+        presignedUrl.expiration().toEpochMilli(),
         Optional.ofNullable(s.stats()));
   }
 
@@ -50,7 +144,8 @@ public class S3FileSigner implements FileSigner {
     } else return string;
   }
 
-  private URL buildPresignedUrl(String bucketName, String keyName, Duration duration) {
+  private PresignedUrlCache.PresignedUrl buildPresignedUrl(
+      String bucketName, String keyName, Duration duration) {
 
     GetObjectRequest objectRequest =
         GetObjectRequest.builder().bucket(bucketName).key(keyName).build();
@@ -61,11 +156,14 @@ public class S3FileSigner implements FileSigner {
         .build();
 
     PresignedGetObjectRequest presignedRequest = s3Presigner.presignGetObject(presignRequest);
-    return presignedRequest.url();
+    return new PresignedUrlCache.PresignedUrl(
+        presignedRequest.url().toString(), presignedRequest.expiration());
   }
 
   @Override
   public void close() throws Exception {
-    s3Presigner.close();
+    // the presigner is shared across signers, FileSignerFactoryImpl closes it once it has been
+    // replaced and all its signers are closed
+    onClose.run();
   }
 }
@@ -0,0 +1,96 @@
+package io.whitefox.core.services;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Decides for how long the URLs presigned for a query stay valid.
+ * <p>
+ * The duration of a share, e.g. {@code whitefox.server.signing.share-durations=share1=PT6H},
+ * takes precedence over the one of the storage of the table, e.g.
+ * {@code whitefox.server.signing.storage-durations=storage1=PT2H}, which takes precedence over
+ * {@code whitefox.server.signing.duration}. Shares read by long running jobs can so be given URLs
+ * that do not expire while they are read, instead of having their clients query them again.
+ * <p>
+ * Durations longer than {@value #MAX_DURATION_DAYS} days, the longest one a SigV4 presigned URL
+ * can be valid for, are rejected at startup.
+ */
+@ApplicationScoped
+public class SignatureDurationPolicy {
+
+  static final int MAX_DURATION_DAYS = 7;
+
+  private final Duration duration;
+  private final Map<String, Duration> shareDurations;
+  private final Map<String, Duration> storageDurations;
+
+  // For CDI 2.0 to work
+  public SignatureDurationPolicy() {
+    this(Duration.ofHours(1), Optional.empty(), Optional.empty());
+  }
+
+  @Inject
+  public SignatureDurationPolicy(
+      @ConfigProperty(name = "whitefox.server.signing.duration", defaultValue = "PT1H")
+          Duration duration,
+      @ConfigProperty(name = "whitefox.server.signing.share-durations")
+          Optional<List<String>> shareDurations,
+      @ConfigProperty(name = "whitefox.server.signing.storage-durations")
+          Optional<List<String>> storageDurations) {
+    this.duration = requireValid("whitefox.server.signing.duration", duration);
+    this.shareDurations = parse("whitefox.server.signing.share-durations", shareDurations);
+    this.storageDurations = parse("whitefox.server.signing.storage-durations", storageDurations);
+  }
+
+  /**
+   * The duration of the URLs presigned for a query of {@code share}, empty when the share is not
+   * known, on a table of {@code storage}.
+   */
+  public Duration signatureDuration(Optional<String> share, String storage) {
+    return share
+        .map(shareDurations::get)
+        .or(() -> Optional.ofNullable(storageDurations.get(storage)))
+        .orElse(duration);
+  }
+
+  private static Map<String, Duration> parse(String property, Optional<List<String>> entries) {
+    return entries.orElse(List.of()).stream()
+        .map(entry -> {
+          var separator = entry.lastIndexOf('=');
+          if (separator <= 0) {
+            throw new IllegalArgumentException(String.format(
+                "%s must be a list of name=duration, %s was provided", property, entry));
+          }
+          try {
+            var name = entry.substring(0, separator).trim();
+            return Map.entry(
+                name,
+                requireValid(
+                    property + "." + name,
+                    Duration.parse(entry.substring(separator + 1).trim())));
+          } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(
+                String.format("%s contains an invalid duration: %s", property, entry), e);
+          }
+        })
+        .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+  }
+
+  private static Duration requireValid(String property, Duration duration) {
+    if (duration.isZero()
+        || duration.isNegative()
+        || duration.compareTo(Duration.ofDays(MAX_DURATION_DAYS)) > 0) {
+      throw new IllegalArgumentException(String.format(
+          "%s must be positive and at most %d days, %s was provided",
+          property, MAX_DURATION_DAYS, duration));
+    }
+    return duration;
+  }
+}
@@ -0,0 +1,70 @@
+package io.whitefox.core.services;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent computations of the same key into a single one.
+ * <p>
+ * The first caller of {@link #execute(Object, Supplier)} for a key runs the computation on its own
+ * thread, callers arriving while it is running wait for it and get its result, or its exception.
+ * Nothing is remembered once the computation completes: the next caller starts a new one, so
+ * failures are never cached. A caller that waits longer than {@code timeout} stops waiting and
+ * runs the computation on its own, so that a stuck computation cannot hold every request of a
+ * key.
+ */
+public class SingleFlight<K, V> {
+
+  private final Duration timeout;
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  public SingleFlight(Duration timeout) {
+    this.timeout = timeout;
+  }
+
+  public V execute(K key, Supplier<V> computation) {
+    var future = new CompletableFuture<V>();
+    var running = inFlight.putIfAbsent(key, future);
+    if (running == null) {
+      return lead(key, future, computation);
+    }
+    return follow(running, computation);
+  }
+
+  private V lead(K key, CompletableFuture<V> future, Supplier<V> computation) {
+    try {
+      var result = computation.get();
+      future.complete(result);
+      return result;
+    } catch (RuntimeException | Error e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, future);
+    }
+  }
+
+  private V follow(CompletableFuture<V> running, Supplier<V> computation) {
+    try {
+      return running.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      return computation.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+}
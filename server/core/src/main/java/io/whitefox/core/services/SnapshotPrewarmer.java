@@ -0,0 +1,193 @@
+package io.whitefox.core.services;
+
+import io.whitefox.core.ReadTableRequest;
+import io.whitefox.core.ResultAndTotalSize;
+import io.whitefox.core.SharedTable;
+import io.whitefox.persistence.StorageManager;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.log4j.Logger;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Keeps the tables of the opted-in shares warm by polling them for new versions in background.
+ * <p>
+ * Every {@code interval} each table of the shares listed in {@code whitefox.server.prewarm.shares}
+ * is loaded through the {@link TableLoaderFactory}, which brings the cached delta logs and iceberg
+ * tables up to date, so that the first request after a commit does not pay for it. When
+ * {@code whitefox.server.prewarm.file-list} is enabled, the file list of every new version is
+ * computed too. Each table is warmed after a random delay up to {@code jitter} and at most
+ * {@code max-concurrency} tables are warmed at the same time, so that tables are not all loaded
+ * at once. Nothing is scheduled when no share opted in.
+ */
+@ApplicationScoped
+public class SnapshotPrewarmer {
+
+  private final Logger logger = Logger.getLogger(this.getClass());
+
+  private final StorageManager storageManager;
+  private final TableLoaderFactory tableLoaderFactory;
+  private final Set<String> shares;
+  private final Duration interval;
+  private final Duration jitter;
+  private final int maxConcurrency;
+  private final boolean warmFileList;
+
+  private final Set<TableKey> inFlight = ConcurrentHashMap.newKeySet();
+  private final Map<TableKey, Long> warmedVersions = new ConcurrentHashMap<>();
+  private ScheduledExecutorService scheduler;
+
+  @Inject
+  public SnapshotPrewarmer(
+      StorageManager storageManager,
+      TableLoaderFactory tableLoaderFactory,
+      @ConfigProperty(name = "whitefox.server.prewarm.shares") Optional<List<String>> shares,
+      @ConfigProperty(name = "whitefox.server.prewarm.interval", defaultValue = "PT1M")
+          Duration interval,
+      @ConfigProperty(name = "whitefox.server.prewarm.jitter", defaultValue = "PT10S")
+          Duration jitter,
+      @ConfigProperty(name = "whitefox.server.prewarm.max-concurrency", defaultValue = "4")
+          int maxConcurrency,
+      @ConfigProperty(name = "whitefox.server.prewarm.file-list", defaultValue = "false")
+          boolean warmFileList) {
+    this.storageManager = storageManager;
+    this.tableLoaderFactory = tableLoaderFactory;
+    this.shares = Set.copyOf(shares.orElse(List.of()));
+    this.interval = interval;
+    this.jitter = jitter;
+    this.maxConcurrency = maxConcurrency;
+    this.warmFileList = warmFileList;
+  }
+
+  void onStart(@Observes @Initialized(ApplicationScoped.class) Object event) {
+    start();
+  }
+
+  public synchronized void start() {
+    if (shares.isEmpty() || scheduler != null) {
+      return;
+    }
+    scheduler = Executors.newScheduledThreadPool(maxConcurrency, runnable -> {
+      var thread = new Thread(runnable, "whitefox-prewarm");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(
+        this::scheduleWarmUps, jitterMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    logger.info("Pre-warming tables of shares " + shares + " every " + interval);
+  }
+
+  @PreDestroy
+  public synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  private void scheduleWarmUps() {
+    try {
+      var tables = optedInTables();
+      forgetRemovedTables(tables);
+      for (SharedTable sharedTable : tables) {
+        var key = TableKey.of(sharedTable);
+        // a table still waiting or being warmed since the previous round is skipped
+        if (inFlight.add(key)) {
+          scheduler.schedule(
+              () -> {
+                try {
+                  warmUp(sharedTable);
+                } finally {
+                  inFlight.remove(key);
+                }
+              },
+              jitterMillis(),
+              TimeUnit.MILLISECONDS);
+        }
+      }
+    } catch (RuntimeException e) {
+      logger.warn("Unable to schedule the pre-warming of shared tables", e);
+    }
+  }
+
+  List<SharedTable> optedInTables() {
+    return shares.stream()
+        .flatMap(share -> storageManager
+            .listTablesOfShare(share, 0, Integer.MAX_VALUE)
+            .map(ResultAndTotalSize::result)
+            .orElse(List.of())
+            .stream())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Forgets the versions warmed for the tables that are no longer among {@code tables}, so that
+   * the tables removed from the opted-in shares are not remembered forever.
+   */
+  void forgetRemovedTables(List<SharedTable> tables) {
+    var keys = tables.stream().map(TableKey::of).collect(Collectors.toSet());
+    warmedVersions.keySet().retainAll(keys);
+  }
+
+  /**
+   * Loads the latest version of {@code sharedTable}, and its file list if enabled, returning
+   * whether a version that was not warmed before has been found. A version is only remembered
+   * once it has been warmed, so that it is warmed again on the next round if it fails.
+   */
+  public boolean warmUp(SharedTable sharedTable) {
+    try {
+      var table = tableLoaderFactory
+          .newTableLoader(sharedTable.internalTable())
+          .loadTable(sharedTable);
+      var version = table.getTableVersion(Optional.empty());
+      if (version.isEmpty()) {
+        return false;
+      }
+      var key = TableKey.of(sharedTable);
+      if (version.get().equals(warmedVersions.get(key))) {
+        return false;
+      }
+      if (warmFileList) {
+        // a file list small enough to be cached is collected when queried, larger ones are not
+        table
+            .queryTable(new ReadTableRequest.ReadTableCurrentVersion(
+                Optional.empty(), Optional.empty(), Optional.empty()))
+            .other()
+            .close();
+      }
+      warmedVersions.put(key, version.get());
+      return true;
+    } catch (RuntimeException e) {
+      logger.warn(
+          String.format(
+              "Unable to pre-warm table %s.%s.%s",
+              sharedTable.share(), sharedTable.schema(), sharedTable.name()),
+          e);
+      return false;
+    }
+  }
+
+  private long jitterMillis() {
+    return jitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1);
+  }
+
+  private record TableKey(String share, String schema, String name) {
+    static TableKey of(SharedTable sharedTable) {
+      return new TableKey(sharedTable.share(), sharedTable.schema(), sharedTable.name());
+    }
+  }
+}
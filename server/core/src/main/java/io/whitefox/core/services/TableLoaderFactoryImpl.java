@@ -1,18 +1,55 @@
 package io.whitefox.core.services;
 
 import io.whitefox.core.InternalTable;
+import io.whitefox.core.configuration.QueryExecutorService;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
 @ApplicationScoped
 public class TableLoaderFactoryImpl implements TableLoaderFactory {
 
+  private final DeltaShareTableLoader deltaShareTableLoader;
+  private final IcebergCatalogHandler icebergCatalogHandler;
+  private final IcebergTableLoader icebergTableLoader;
+
+  public TableLoaderFactoryImpl() {
+    this(
+        new DeltaLogCache(),
+        new IcebergTableCache(),
+        new ReadTableResultCache(),
+        new DeltaSnapshotIndexCache(),
+        new HadoopConfigBuilder(),
+        new QueryExecutorService());
+  }
+
+  @Inject
+  public TableLoaderFactoryImpl(
+      DeltaLogCache deltaLogCache,
+      IcebergTableCache icebergTableCache,
+      ReadTableResultCache readTableResultCache,
+      DeltaSnapshotIndexCache snapshotIndexCache,
+      HadoopConfigBuilder hadoopConfigBuilder,
+      QueryExecutorService queryExecutor) {
+    this.deltaShareTableLoader = new DeltaShareTableLoader(
+        deltaLogCache, readTableResultCache, snapshotIndexCache, queryExecutor);
+    this.icebergCatalogHandler =
+        new IcebergCatalogHandler(new AwsGlueConfigBuilder(), hadoopConfigBuilder);
+    this.icebergTableLoader = new IcebergTableLoader(
+        icebergCatalogHandler, icebergTableCache, readTableResultCache, queryExecutor);
+  }
+
   @Override
   public TableLoader newTableLoader(InternalTable internalTable) {
     if (internalTable.properties() instanceof InternalTable.DeltaTableProperties) {
-      return new DeltaShareTableLoader();
+      return deltaShareTableLoader;
     } else if (internalTable.properties() instanceof InternalTable.IcebergTableProperties) {
-      return new IcebergTableLoader(
-          new IcebergCatalogHandler(new AwsGlueConfigBuilder(), new HadoopConfigBuilder()));
+      return icebergTableLoader;
     } else throw new RuntimeException(String.format("unknown table [%s]", internalTable.name()));
   }
+
+  @PreDestroy
+  public void close() {
+    icebergCatalogHandler.close();
+  }
 }
@@ -42,6 +42,7 @@ public interface BaseOp {
           || valueType instanceof LongType);
   }
 
+  // the predicate is expected to be validated once before being evaluated on many contexts
   Object eval(EvalContext ctx) throws PredicateException;
 
   default Boolean evalExpectBoolean(EvalContext ctx) throws PredicateException {
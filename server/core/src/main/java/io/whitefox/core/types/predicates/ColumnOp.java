@@ -28,7 +28,7 @@ public class ColumnOp extends LeafOp {
   // Determine if the column value is null.
   @Override
   public Boolean isNull(EvalContext ctx) {
-    return ctx.partitionValues.get(name) == null && !ctx.getStatsValues().containsKey(name);
+    return ctx.partitionValues.get(name) == null && !ctx.hasStats(name);
   }
 
   @Override
@@ -51,7 +51,7 @@ public class ColumnOp extends LeafOp {
   @Override
   public Object eval(EvalContext ctx) {
     // TODO: handle case of null column + column ranges
-    return new ColumnRange(resolve(ctx), valueType);
+    return ColumnRange.of(resolve(ctx), valueType);
   }
 
   public void validate() throws PredicateException {
@@ -63,7 +63,7 @@ public class ColumnOp extends LeafOp {
     }
   }
 
-  private String resolve(EvalContext ctx) {
+  String resolve(EvalContext ctx) {
     // TODO: handle case of null column + column ranges
     return ctx.partitionValues.getOrDefault(name, null);
   }
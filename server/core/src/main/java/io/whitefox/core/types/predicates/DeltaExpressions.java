@@ -0,0 +1,207 @@
+package io.whitefox.core.types.predicates;
+
+import io.delta.standalone.actions.Metadata;
+import io.delta.standalone.expressions.And;
+import io.delta.standalone.expressions.EqualTo;
+import io.delta.standalone.expressions.Expression;
+import io.delta.standalone.expressions.GreaterThan;
+import io.delta.standalone.expressions.GreaterThanOrEqual;
+import io.delta.standalone.expressions.IsNull;
+import io.delta.standalone.expressions.LessThan;
+import io.delta.standalone.expressions.LessThanOrEqual;
+import io.delta.standalone.expressions.Literal;
+import io.delta.standalone.expressions.Not;
+import io.delta.standalone.expressions.Or;
+import io.whitefox.core.types.*;
+import java.sql.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+
+/**
+ * Translates the predicate hints on partition columns into a delta-standalone
+ * {@link Expression}, used to scan only the files of the matching partitions of a snapshot.
+ * <p>
+ * The translation is conservative: a predicate that cannot be translated, because it is not on a
+ * partition column or because of its operator or type, matches every partition. In a conjunction
+ * only that predicate is dropped, which makes the conjunction looser than the predicate: a
+ * disjunction with it cannot be translated at all, and neither can a negation of it or of a looser
+ * conjunction, which would prune files with matching rows. Every predicate is still evaluated on
+ * the scanned files afterwards.
+ */
+public class DeltaExpressions {
+
+  private DeltaExpressions() {}
+
+  /**
+   * Returns the conjunction of the partition filters in {@code predicates}, empty if none of them
+   * can be translated.
+   */
+  public static Optional<Expression> partitionFilter(List<BaseOp> predicates, Metadata metadata) {
+    return conjunction(predicates, metadata).map(Translation::expression);
+  }
+
+  /**
+   * The conjunction of the translatable {@code predicates}, which is exact only when all of them
+   * are translated exactly.
+   */
+  private static Optional<Translation> conjunction(List<BaseOp> predicates, Metadata metadata) {
+    Expression result = null;
+    boolean exact = true;
+    for (BaseOp predicate : predicates) {
+      var converted = convert(predicate, metadata);
+      if (converted.isEmpty()) {
+        exact = false;
+        continue;
+      }
+      exact &= converted.get().exact();
+      result = result == null
+          ? converted.get().expression()
+          : new And(result, converted.get().expression());
+    }
+    return result == null ? Optional.empty() : Optional.of(new Translation(result, exact));
+  }
+
+  private static Optional<Translation> convert(BaseOp op, Metadata metadata) {
+    if (op instanceof AndOp) {
+      return conjunction(((AndOp) op).children, metadata);
+    } else if (op instanceof OrOp) {
+      Expression result = null;
+      boolean exact = true;
+      for (BaseOp child : ((OrOp) op).children) {
+        var converted = convert(child, metadata);
+        if (converted.isEmpty()) {
+          return Optional.empty();
+        }
+        exact &= converted.get().exact();
+        result = result == null
+            ? converted.get().expression()
+            : new Or(result, converted.get().expression());
+      }
+      return result == null ? Optional.empty() : Optional.of(new Translation(result, exact));
+    } else if (op instanceof NotOp) {
+      // the negation of a looser translation would be stricter than the predicate and prune files
+      // with matching rows
+      var children = ((NotOp) op).children;
+      return children.size() == 1
+          ? convert(children.get(0), metadata)
+              .filter(Translation::exact)
+              .map(child -> new Translation(new Not(child.expression()), true))
+          : Optional.empty();
+    } else if (op instanceof IsNullOp) {
+      var children = ((IsNullOp) op).children;
+      if (children.size() != 1 || !(children.get(0) instanceof ColumnOp)) {
+        return Optional.empty();
+      }
+      var column = (ColumnOp) children.get(0);
+      if (!metadata.getPartitionColumns().contains(column.name)) {
+        return Optional.empty();
+      }
+      try {
+        return Optional.of(
+            new Translation(new IsNull(metadata.getSchema().column(column.name)), true));
+      } catch (IllegalArgumentException e) {
+        return Optional.empty();
+      }
+    } else if (op instanceof EqualOp) {
+      return comparison(EqualTo::new, EqualTo::new, ((EqualOp) op).children, metadata);
+    } else if (op instanceof DifferentThanOp) {
+      return comparison(EqualTo::new, EqualTo::new, ((DifferentThanOp) op).children, metadata)
+          .filter(Translation::exact)
+          .map(equal -> new Translation(new Not(equal.expression()), true));
+    } else if (op instanceof LessThanOp) {
+      return comparison(LessThan::new, GreaterThan::new, ((LessThanOp) op).children, metadata);
+    } else if (op instanceof LessThanOrEqualOp) {
+      return comparison(
+          LessThanOrEqual::new,
+          GreaterThanOrEqual::new,
+          ((LessThanOrEqualOp) op).children,
+          metadata);
+    } else if (op instanceof GreaterThanOp) {
+      return comparison(GreaterThan::new, LessThan::new, ((GreaterThanOp) op).children, metadata);
+    } else if (op instanceof GreaterThanOrEqualOp) {
+      return comparison(
+          GreaterThanOrEqual::new,
+          LessThanOrEqual::new,
+          ((GreaterThanOrEqualOp) op).children,
+          metadata);
+    } else {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Builds {@code columnFirst(column, literal)} or, when the literal comes first,
+   * {@code literalFirst(column, literal)}, e.g. literal < column is column > literal.
+   */
+  private static Optional<Translation> comparison(
+      BinaryOperator<Expression> columnFirst,
+      BinaryOperator<Expression> literalFirst,
+      List<LeafOp> children,
+      Metadata metadata) {
+    if (children.size() != 2) {
+      return Optional.empty();
+    }
+    ColumnOp column;
+    LiteralOp literal;
+    BinaryOperator<Expression> comparison;
+    if (children.get(0) instanceof ColumnOp && children.get(1) instanceof LiteralOp) {
+      column = (ColumnOp) children.get(0);
+      literal = (LiteralOp) children.get(1);
+      comparison = columnFirst;
+    } else if (children.get(1) instanceof ColumnOp && children.get(0) instanceof LiteralOp) {
+      column = (ColumnOp) children.get(1);
+      literal = (LiteralOp) children.get(0);
+      comparison = literalFirst;
+    } else {
+      return Optional.empty();
+    }
+    if (!metadata.getPartitionColumns().contains(column.name)
+        || !Objects.equals(column.valueType, literal.valueType)) {
+      return Optional.empty();
+    }
+    try {
+      var value = literal(literal);
+      if (value.isEmpty()) {
+        return Optional.empty();
+      }
+      // fails if the type of the column does not match the one of the literal
+      return Optional.of(new Translation(
+          comparison.apply(metadata.getSchema().column(column.name), value.get()), true));
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static Optional<Expression> literal(LiteralOp literal) {
+    var type = literal.valueType;
+    var value = literal.value;
+    if (value == null) {
+      return Optional.empty();
+    } else if (type instanceof IntegerType) {
+      return Optional.of(Literal.of(Integer.parseInt(value)));
+    } else if (type instanceof LongType) {
+      return Optional.of(Literal.of(Long.parseLong(value)));
+    } else if (type instanceof FloatType) {
+      return Optional.of(Literal.of(Float.parseFloat(value)));
+    } else if (type instanceof DoubleType) {
+      return Optional.of(Literal.of(Double.parseDouble(value)));
+    } else if (type instanceof BooleanType) {
+      return Optional.of(Literal.of(Boolean.parseBoolean(value)));
+    } else if (type instanceof StringType) {
+      return Optional.of(Literal.of(value));
+    } else if (type instanceof DateType) {
+      return Optional.of(Literal.of(Date.valueOf(value)));
+    } else {
+      // timestamps are left out, their time zone is not carried by the predicate
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * The translation of a predicate, {@code exact} when it matches the same partitions as the
+   * predicate rather than more of them.
+   */
+  private record Translation(Expression expression, boolean exact) {}
+}
@@ -1,24 +1,47 @@
 package io.whitefox.core.types.predicates;
 
+import io.whitefox.core.ColumnRange;
+import io.whitefox.core.FileStatsIndex;
+import io.whitefox.core.types.DataType;
 import java.util.Map;
+import java.util.Set;
 import org.apache.commons.lang3.tuple.Pair;
 
 public class EvalContext {
 
   public EvalContext(
       Map<String, String> partitionValues, Map<String, Pair<String, String>> statsValues) {
+    this(partitionValues, FileStatsIndex.of(statsValues), 0);
+  }
+
+  /**
+   * Context of the file at position {@code file} of {@code statsIndex}, which lets all the files
+   * of a snapshot share the same already parsed statistics.
+   */
+  public EvalContext(Map<String, String> partitionValues, FileStatsIndex statsIndex, int file) {
     this.partitionValues = partitionValues;
-    this.statsValues = statsValues;
+    this.statsIndex = statsIndex;
+    this.file = file;
   }
 
   final Map<String, String> partitionValues;
-  final Map<String, Pair<String, String>> statsValues;
+  final FileStatsIndex statsIndex;
+  final int file;
 
   public Map<String, String> getPartitionValues() {
     return partitionValues;
   }
 
-  public Map<String, Pair<String, String>> getStatsValues() {
-    return statsValues;
+  public boolean hasStats(String column) {
+    return statsIndex.hasStats(column, file);
+  }
+
+  public Set<String> getStatsColumns() {
+    return statsIndex.columns(file);
+  }
+
+  public ColumnRange getColumnRange(String column, DataType valueType)
+      throws NonExistingColumnException {
+    return statsIndex.columnRange(column, file, valueType);
   }
 }
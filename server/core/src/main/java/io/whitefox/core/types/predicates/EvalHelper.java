@@ -6,49 +6,30 @@ import java.sql.Date;
 import java.sql.Timestamp;
 import java.util.List;
 import java.util.Objects;
-import org.apache.commons.lang3.tuple.Pair;
 
-// Only for partition values
 public class EvalHelper {
 
-  private static LeafEvaluationResult validateAndGetRange(
-      ColumnOp columnChild, LiteralOp literalChild, EvalContext ctx) throws PredicateException {
-    var columnRange = columnChild.evalExpectColumnRange(ctx);
-    var rightVal = literalChild.evalExpectValueAndType(ctx).getSingleValue();
-
-    return LeafEvaluationResult.createFromRange(new RangeEvaluationResult(columnRange, rightVal));
-  }
-
-  private static LeafEvaluationResult validateAndGetTypeAndValue(
+  private static ColumnRange validateAndGetRange(
       ColumnOp columnOp, LiteralOp literalOp, EvalContext ctx) throws PredicateException {
-    var columnType = columnOp.evalExpectValueAndType(ctx).getValueType();
-    var columnValue = columnOp.evalExpectValueAndType(ctx).getSingleValue();
-
-    var literalType = literalOp.evalExpectValueAndType(ctx).getValueType();
-    var literalValue = literalOp.evalExpectValueAndType(ctx).getSingleValue();
+    var columnType = columnOp.getOpValueType();
+    var literalType = literalOp.getOpValueType();
     // If the types don't match, it implies a malformed predicate tree.
     // We simply throw an exception, which will cause filtering to be skipped.
     if (!Objects.equals(columnType, literalType)) {
       throw new TypeMismatchException(columnType, literalType);
     }
 
+    var columnValue = columnOp.resolve(ctx);
     if (columnValue == null) {
-      return validateAndGetRange(columnOp, literalOp, ctx);
+      return columnOp.evalExpectColumnRange(ctx);
     }
 
     // We throw an exception for nulls, which will skip filtering.
-    if (literalValue == null) {
+    if (literalOp.value == null) {
       throw new NullTypeException(columnOp, literalOp);
     }
 
-    return LeafEvaluationResult.createFromPartitionColumn(
-        new PartitionEvaluationResult(new ColumnRange(columnValue, columnType), literalValue));
-  }
-
-  private static Pair<ColumnOp, LiteralOp> arrangeChildren(List<LeafOp> children) {
-    if (children.get(0) instanceof ColumnOp)
-      return Pair.of((ColumnOp) children.get(0), (LiteralOp) children.get(1));
-    else return Pair.of((ColumnOp) children.get(1), (LiteralOp) children.get(0));
+    return ColumnRange.of(columnValue, columnType);
   }
 
   // allows throwing an exception from a function passed as an argument
@@ -60,24 +41,15 @@ public class EvalHelper {
   static Boolean evaluate(
       List<LeafOp> children,
       EvalContext ctx,
-      BiFunctionWithException<ColumnRange, String, Boolean, PredicateException> condition)
+      BiFunctionWithException<ColumnRange, ColumnRange, Boolean, PredicateException> condition)
       throws PredicateException {
-    var columnOp = arrangeChildren(children).getLeft();
-    var literalOp = arrangeChildren(children).getRight();
-
-    var leafEvaluationResult = validateAndGetTypeAndValue(columnOp, literalOp, ctx);
-
-    if (leafEvaluationResult.rangeEvaluationResult.isPresent()) {
-      var evaluationResult = leafEvaluationResult.rangeEvaluationResult.get();
-      var columnRange = evaluationResult.getColumnRange();
-      var value = evaluationResult.getValue();
-      return condition.apply(columnRange, value);
-    } else if (leafEvaluationResult.partitionEvaluationResult.isPresent()) {
-      var evaluationResult = leafEvaluationResult.partitionEvaluationResult.get();
-      var literalValue = evaluationResult.getLiteralValue();
+    var columnFirst = children.get(0) instanceof ColumnOp;
+    var columnOp = (ColumnOp) children.get(columnFirst ? 0 : 1);
+    var literalOp = (LiteralOp) children.get(columnFirst ? 1 : 0);
 
-      return condition.apply(evaluationResult.getPartitionValue(), literalValue);
-    } else throw new PredicateColumnEvaluationException(ctx);
+    // either the statistics of the column or its partition value
+    var columnRange = validateAndGetRange(columnOp, literalOp, ctx);
+    return condition.apply(columnRange, literalOp.range());
   }
 
   static Boolean equal(List<LeafOp> children, EvalContext ctx) throws PredicateException {
@@ -0,0 +1,177 @@
+package io.whitefox.core.types.predicates;
+
+import io.whitefox.core.types.*;
+import java.sql.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.exceptions.ValidationException;
+import org.apache.iceberg.expressions.Binder;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expression.Operation;
+import org.apache.iceberg.expressions.Expressions;
+
+/**
+ * Translates predicate hints into an iceberg {@link Expression}, used to filter a table scan so
+ * that iceberg prunes manifests, partitions and files on its own metadata.
+ * <p>
+ * The translation is conservative: a predicate that cannot be translated, because of its
+ * operator, its type or a column missing from the schema, matches every file. In a conjunction
+ * only that predicate is dropped, which makes the conjunction looser than the predicate: a
+ * disjunction with it cannot be translated at all, and neither can a negation of it or of a looser
+ * conjunction, which would drop files with matching rows.
+ */
+public class IcebergExpressions {
+
+  private IcebergExpressions() {}
+
+  /**
+   * Returns the conjunction of {@code predicates}, translated against {@code schema}.
+   */
+  public static Expression of(List<BaseOp> predicates, Schema schema) {
+    return conjunction(predicates, schema).expression();
+  }
+
+  /**
+   * The conjunction of {@code predicates}, which is exact only when all of them are translated
+   * exactly.
+   */
+  private static Translation conjunction(List<BaseOp> predicates, Schema schema) {
+    Expression result = Expressions.alwaysTrue();
+    boolean exact = true;
+    for (BaseOp predicate : predicates) {
+      var converted = convert(predicate, schema);
+      if (converted.isEmpty()) {
+        exact = false;
+        continue;
+      }
+      exact &= converted.get().exact();
+      result = Expressions.and(result, converted.get().expression());
+    }
+    return new Translation(result, exact);
+  }
+
+  private static Optional<Translation> convert(BaseOp op, Schema schema) {
+    if (op instanceof AndOp) {
+      return Optional.of(conjunction(((AndOp) op).children, schema));
+    } else if (op instanceof OrOp) {
+      Expression result = Expressions.alwaysFalse();
+      boolean exact = true;
+      for (BaseOp child : ((OrOp) op).children) {
+        var converted = convert(child, schema);
+        if (converted.isEmpty()) {
+          return Optional.empty();
+        }
+        exact &= converted.get().exact();
+        result = Expressions.or(result, converted.get().expression());
+      }
+      return Optional.of(new Translation(result, exact));
+    } else if (op instanceof NotOp) {
+      // the negation of a looser translation would be stricter than the predicate and drop files
+      // with matching rows
+      var children = ((NotOp) op).children;
+      return children.size() == 1
+          ? convert(children.get(0), schema)
+              .filter(Translation::exact)
+              .map(child -> new Translation(Expressions.not(child.expression()), true))
+          : Optional.empty();
+    } else if (op instanceof IsNullOp) {
+      var children = ((IsNullOp) op).children;
+      if (children.size() != 1 || !(children.get(0) instanceof ColumnOp)) {
+        return Optional.empty();
+      }
+      return bound(Expressions.isNull(((ColumnOp) children.get(0)).name), schema);
+    } else if (op instanceof EqualOp) {
+      return comparison(Operation.EQ, ((EqualOp) op).children, schema);
+    } else if (op instanceof DifferentThanOp) {
+      return comparison(Operation.NOT_EQ, ((DifferentThanOp) op).children, schema);
+    } else if (op instanceof LessThanOp) {
+      return comparison(Operation.LT, ((LessThanOp) op).children, schema);
+    } else if (op instanceof LessThanOrEqualOp) {
+      return comparison(Operation.LT_EQ, ((LessThanOrEqualOp) op).children, schema);
+    } else if (op instanceof GreaterThanOp) {
+      return comparison(Operation.GT, ((GreaterThanOp) op).children, schema);
+    } else if (op instanceof GreaterThanOrEqualOp) {
+      return comparison(Operation.GT_EQ, ((GreaterThanOrEqualOp) op).children, schema);
+    } else {
+      return Optional.empty();
+    }
+  }
+
+  private static Optional<Translation> comparison(
+      Operation columnOperation, List<LeafOp> children, Schema schema) {
+    if (children.size() != 2) {
+      return Optional.empty();
+    }
+    ColumnOp column;
+    LiteralOp literal;
+    Operation operation;
+    if (children.get(0) instanceof ColumnOp && children.get(1) instanceof LiteralOp) {
+      column = (ColumnOp) children.get(0);
+      literal = (LiteralOp) children.get(1);
+      operation = columnOperation;
+    } else if (children.get(1) instanceof ColumnOp && children.get(0) instanceof LiteralOp) {
+      column = (ColumnOp) children.get(1);
+      literal = (LiteralOp) children.get(0);
+      // literal < column is column > literal
+      operation = columnOperation.flipLR();
+    } else {
+      return Optional.empty();
+    }
+    if (column.name == null || !Objects.equals(column.valueType, literal.valueType)) {
+      return Optional.empty();
+    }
+    var value = value(literal);
+    if (value.isEmpty()) {
+      return Optional.empty();
+    }
+    return bound(Expressions.predicate(operation, column.name, value.get()), schema);
+  }
+
+  private static Optional<Object> value(LiteralOp literal) {
+    var type = literal.valueType;
+    var value = literal.value;
+    if (value == null) {
+      return Optional.empty();
+    }
+    try {
+      if (type instanceof IntegerType) {
+        return Optional.of(Integer.parseInt(value));
+      } else if (type instanceof LongType) {
+        return Optional.of(Long.parseLong(value));
+      } else if (type instanceof FloatType) {
+        return Optional.of(Float.parseFloat(value));
+      } else if (type instanceof DoubleType) {
+        return Optional.of(Double.parseDouble(value));
+      } else if (type instanceof BooleanType) {
+        return Optional.of(Boolean.parseBoolean(value));
+      } else if (type instanceof StringType) {
+        return Optional.of(value);
+      } else if (type instanceof DateType) {
+        // iceberg parses dates from their ISO representation
+        return Optional.of(Date.valueOf(value).toLocalDate().toString());
+      } else {
+        // timestamps are left out, their time zone is not carried by the predicate
+        return Optional.empty();
+      }
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static Optional<Translation> bound(Expression expression, Schema schema) {
+    try {
+      Binder.bind(schema.asStruct(), expression, true);
+      return Optional.of(new Translation(expression, true));
+    } catch (ValidationException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * The translation of a predicate, {@code exact} when it matches the same rows as the predicate
+   * rather than more of them.
+   */
+  private record Translation(Expression expression, boolean exact) {}
+}
@@ -2,6 +2,7 @@ package io.whitefox.core.types.predicates;
 
 import static io.whitefox.core.types.predicates.EvaluatorVersion.V1;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import io.whitefox.core.ColumnRange;
@@ -12,6 +13,10 @@ public class LiteralOp extends LeafOp {
   @JsonProperty("value")
   String value;
 
+  // parsed once, on the first evaluation
+  @JsonIgnore
+  private ColumnRange range;
+
   @Override
   public void validate() throws PredicateException {
     if (value == null) {
@@ -25,7 +30,14 @@ public class LiteralOp extends LeafOp {
 
   @Override
   public Object eval(EvalContext ctx) {
-    return new ColumnRange(value, valueType);
+    return range();
+  }
+
+  ColumnRange range() {
+    if (range == null) {
+      range = ColumnRange.of(value, valueType);
+    }
+    return range;
   }
 
   public LiteralOp() {
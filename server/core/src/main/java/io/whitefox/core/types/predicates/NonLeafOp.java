@@ -100,7 +100,6 @@ class EqualOp extends NonLeafOp implements BinaryOp {
 
   @Override
   public Object eval(EvalContext ctx) throws PredicateException {
-    this.validate();
     return EvalHelper.equal(children, ctx);
   }
 }
@@ -127,7 +126,6 @@ class DifferentThanOp extends NonLeafOp implements BinaryOp {
 
   @Override
   public Object eval(EvalContext ctx) throws PredicateException {
-    this.validate();
     return !EvalHelper.equal(children, ctx);
   }
 }
@@ -153,11 +151,6 @@ class LessThanOp extends NonLeafOp implements BinaryOp {
 
   @Override
   public Object eval(EvalContext ctx) throws PredicateException {
-    try {
-      this.validate();
-    } catch (PredicateException e) {
-      throw new RuntimeException(e);
-    }
     return EvalHelper.lessThan(children, ctx);
   }
 }
@@ -184,11 +177,6 @@ class LessThanOrEqualOp extends NonLeafOp implements BinaryOp {
 
   @Override
   public Object eval(EvalContext ctx) throws PredicateException {
-    try {
-      this.validate();
-    } catch (PredicateException e) {
-      throw new RuntimeException(e);
-    }
     return EvalHelper.lessThan(children, ctx) || EvalHelper.equal(children, ctx);
   }
 }
@@ -215,11 +203,6 @@ class GreaterThanOp extends NonLeafOp implements BinaryOp {
 
   @Override
   public Object eval(EvalContext ctx) throws PredicateException {
-    try {
-      this.validate();
-    } catch (PredicateException e) {
-      throw new RuntimeException(e);
-    }
     return !EvalHelper.lessThan(children, ctx) && !EvalHelper.equal(children, ctx);
   }
 }
@@ -246,11 +229,6 @@ class GreaterThanOrEqualOp extends NonLeafOp implements BinaryOp {
 
   @Override
   public Object eval(EvalContext ctx) throws PredicateException {
-    try {
-      this.validate();
-    } catch (PredicateException e) {
-      throw new RuntimeException(e);
-    }
     return !EvalHelper.lessThan(children, ctx);
   }
 }
@@ -273,11 +251,6 @@ class AndOp extends NonLeafOp implements BinaryOp {
 
   @Override
   public Object eval(EvalContext ctx) throws PredicateException {
-    try {
-      this.validate();
-    } catch (PredicateException e) {
-      throw new RuntimeException(e);
-    }
     // short-circuits, so not all exceptions will be thrown
     for (BaseOp c : children) {
       if (!c.evalExpectBoolean(ctx)) {
@@ -306,11 +279,6 @@ class OrOp extends NonLeafOp implements BinaryOp {
 
   @Override
   public Object eval(EvalContext ctx) throws PredicateException {
-    try {
-      this.validate();
-    } catch (PredicateException e) {
-      throw new RuntimeException(e);
-    }
     for (BaseOp c : children) {
       if (c.evalExpectBoolean(ctx)) {
         return true;
@@ -323,10 +291,7 @@ class OrOp extends NonLeafOp implements BinaryOp {
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "not")
 class NotOp extends NonLeafOp implements UnaryOp {
 
-  @JsonProperty("children")
-  List<LeafOp> children;
-
-  public NotOp(List<LeafOp> children) {
+  public NotOp(List<BaseOp> children) {
     this.children = children;
   }
 
@@ -336,17 +301,11 @@ class NotOp extends NonLeafOp implements UnaryOp {
 
   @Override
   public void validate() throws PredicateException {
-    validateChildren(
-        List.copyOf(children).stream().map(c -> (BaseOp) c).collect(Collectors.toList()));
+    validateChildren(children);
   }
 
   @Override
   public Object eval(EvalContext ctx) throws PredicateException {
-    try {
-      this.validate();
-    } catch (PredicateException e) {
-      throw new RuntimeException(e);
-    }
     return !children.get(0).evalExpectBoolean(ctx);
   }
 }
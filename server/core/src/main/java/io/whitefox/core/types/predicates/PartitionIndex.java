@@ -0,0 +1,144 @@
+package io.whitefox.core.types.predicates;
+
+import io.whitefox.core.ColumnRange;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Inverted index from partition column to partition value to the positions of the files having
+ * that value, used to narrow down the files a predicate has to be evaluated on.
+ * <p>
+ * Equality, is-null, and and or of them are resolved with bitmap operations over the distinct
+ * values of a column instead of a scan over the files. The result is a superset of the files that
+ * can match the predicate: everything that cannot be resolved on partition values alone, such as
+ * comparisons on statistics or malformed predicates, keeps all the files, and the full predicate
+ * is still evaluated on the remaining ones.
+ */
+public class PartitionIndex {
+
+  private final int size;
+  private final Map<String, Map<String, BitSet>> values;
+  private final Map<String, BitSet> nulls;
+
+  private PartitionIndex(
+      int size, Map<String, Map<String, BitSet>> values, Map<String, BitSet> nulls) {
+    this.size = size;
+    this.values = values;
+    this.nulls = nulls;
+  }
+
+  public static PartitionIndex of(List<Map<String, String>> partitionValues) {
+    var size = partitionValues.size();
+    var values = new HashMap<String, Map<String, BitSet>>();
+    for (int file = 0; file < size; file++) {
+      for (var entry : partitionValues.get(file).entrySet()) {
+        if (entry.getValue() != null) {
+          values
+              .computeIfAbsent(entry.getKey(), k -> new HashMap<>())
+              .computeIfAbsent(entry.getValue(), k -> new BitSet(size))
+              .set(file);
+        }
+      }
+    }
+    var nulls = new HashMap<String, BitSet>();
+    values.forEach((column, files) -> {
+      var notNull = new BitSet(size);
+      files.values().forEach(notNull::or);
+      var isNull = new BitSet(size);
+      isNull.set(0, size);
+      isNull.andNot(notNull);
+      nulls.put(column, isNull);
+    });
+    return new PartitionIndex(size, Map.copyOf(values), Map.copyOf(nulls));
+  }
+
+  /**
+   * Returns the positions of all the files.
+   */
+  public BitSet all() {
+    var all = new BitSet(size);
+    all.set(0, size);
+    return all;
+  }
+
+  /**
+   * Returns the positions of the files that can match {@code predicate}, which has already been
+   * validated when compiled.
+   */
+  public BitSet candidates(BaseOp predicate) {
+    try {
+      return resolve(predicate);
+    } catch (RuntimeException e) {
+      // evaluated, and reported, file by file later on
+      return all();
+    }
+  }
+
+  private BitSet resolve(BaseOp op) {
+    if (op instanceof EqualOp) {
+      return equal(((EqualOp) op).children);
+    } else if (op instanceof IsNullOp) {
+      return isNull(((IsNullOp) op).children);
+    } else if (op instanceof AndOp) {
+      var result = all();
+      ((AndOp) op).children.forEach(c -> result.and(resolve(c)));
+      return result;
+    } else if (op instanceof OrOp) {
+      var result = new BitSet(size);
+      ((OrOp) op).children.forEach(c -> result.or(resolve(c)));
+      return result;
+    } else {
+      return all();
+    }
+  }
+
+  private BitSet equal(List<LeafOp> children) {
+    if (children.size() != 2) {
+      return all();
+    }
+    ColumnOp column;
+    LiteralOp literal;
+    if (children.get(0) instanceof ColumnOp && children.get(1) instanceof LiteralOp) {
+      column = (ColumnOp) children.get(0);
+      literal = (LiteralOp) children.get(1);
+    } else if (children.get(1) instanceof ColumnOp && children.get(0) instanceof LiteralOp) {
+      column = (ColumnOp) children.get(1);
+      literal = (LiteralOp) children.get(0);
+    } else {
+      return all();
+    }
+    var columnValues = values.get(column.name);
+    if (columnValues == null
+        || literal.value == null
+        || !Objects.equals(column.valueType, literal.valueType)) {
+      return all();
+    }
+    // files without a partition value are evaluated on their statistics
+    var result = (BitSet) nulls.get(column.name).clone();
+    columnValues.forEach((value, files) -> {
+      if (mayEqual(value, literal)) {
+        result.or(files);
+      }
+    });
+    return result;
+  }
+
+  private boolean mayEqual(String partitionValue, LiteralOp literal) {
+    try {
+      return ColumnRange.of(partitionValue, literal.valueType).contains(literal.range());
+    } catch (PredicateException | RuntimeException e) {
+      return true;
+    }
+  }
+
+  private BitSet isNull(List<LeafOp> children) {
+    if (children.size() != 1 || !(children.get(0) instanceof ColumnOp)) {
+      return all();
+    }
+    var columnNulls = nulls.get(((ColumnOp) children.get(0)).name);
+    return columnNulls == null ? all() : (BitSet) columnNulls.clone();
+  }
+}
@@ -14,6 +14,6 @@ public class PredicateColumnEvaluationException extends PredicateException {
         + "Partition columns: "
         + ctx.getPartitionValues().keySet().stream().reduce((s1, s2) -> s1 + "|" + s2) + "\n"
         + "Regular columns: "
-        + ctx.getStatsValues().keySet().stream().reduce((s1, s2) -> s1 + "|" + s2) + "\n";
+        + ctx.getStatsColumns().stream().reduce((s1, s2) -> s1 + "|" + s2) + "\n";
   }
 }
@@ -0,0 +1,89 @@
+package io.whitefox.core;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.whitefox.core.types.BooleanType;
+import io.whitefox.core.types.DateType;
+import io.whitefox.core.types.DoubleType;
+import io.whitefox.core.types.FloatType;
+import io.whitefox.core.types.IntegerType;
+import io.whitefox.core.types.LongType;
+import io.whitefox.core.types.StringType;
+import io.whitefox.core.types.TimestampType;
+import io.whitefox.core.types.predicates.PredicateException;
+import io.whitefox.core.types.predicates.TypeMismatchException;
+import io.whitefox.core.types.predicates.TypeNotSupportedException;
+import io.whitefox.core.types.predicates.TypeValidationException;
+import org.junit.jupiter.api.Test;
+
+public class ColumnRangeTest {
+
+  @Test
+  void compareIntegralValues() throws PredicateException {
+    var range = ColumnRange.of("10", "20", IntegerType.INTEGER);
+    assertTrue(range.contains("10"));
+    assertTrue(range.contains("20"));
+    assertFalse(range.contains("21"));
+    assertTrue(range.canBeLess("11"));
+    assertFalse(range.canBeLess("10"));
+    assertTrue(range.canBeGreater("19"));
+    assertFalse(range.canBeGreater("20"));
+    assertTrue(ColumnRange.of(10L, 20L, LongType.LONG)
+        .contains(ColumnRange.of("15", LongType.LONG)));
+  }
+
+  @Test
+  void compareDatesAndTimestamps() throws PredicateException {
+    var dates = ColumnRange.of("2020-11-10", "2020-11-12", DateType.DATE);
+    assertTrue(dates.contains("2020-11-12"));
+    assertFalse(dates.contains("2020-11-13"));
+    assertTrue(dates.canBeLess("2020-11-11"));
+    var timestamps = ColumnRange.of(
+        "2022-08-10 06:02:03.000000", "2022-12-10 06:02:03.000000", TimestampType.TIMESTAMP);
+    assertTrue(timestamps.contains("2022-12-10 06:02:03.000000"));
+    assertFalse(timestamps.contains("2022-12-10 06:02:03.000001"));
+    assertTrue(timestamps.canBeGreater("2022-12-10 06:02:02.999999"));
+  }
+
+  @Test
+  void compareFloatingPointValues() throws PredicateException {
+    assertTrue(ColumnRange.of(2.99, 2.99, FloatType.FLOAT).contains("2.99"));
+    assertTrue(ColumnRange.of(2.99, 3.01, DoubleType.DOUBLE).contains("3.0"));
+    assertTrue(ColumnRange.of("2.99", "3.01", DoubleType.DOUBLE).canBeGreater("3.0"));
+    assertFalse(ColumnRange.of("2.99", "3.01", DoubleType.DOUBLE).canBeGreater("3.01"));
+  }
+
+  @Test
+  void compareStringsByCodePoint() throws PredicateException {
+    var range = ColumnRange.of("aaaa", "cccc", StringType.STRING);
+    assertTrue(range.contains("aabb"));
+    assertFalse(range.contains("dddd"));
+    assertTrue(range.canBeLess("dddd"));
+    // U+10000 is encoded in UTF-16 as surrogates, that are less than U+FFFD
+    assertTrue(ColumnRange.of("\uFFFD", "\uD800\uDC00", StringType.STRING).contains("\uFFFF"));
+  }
+
+  @Test
+  void compareBooleans() throws PredicateException {
+    var range = ColumnRange.of("true", BooleanType.BOOLEAN);
+    assertTrue(range.contains("true"));
+    assertFalse(range.contains("false"));
+    assertThrows(TypeNotSupportedException.class, () -> range.canBeLess("true"));
+  }
+
+  @Test
+  void invalidRanges() {
+    assertThrows(
+        TypeValidationException.class,
+        () -> ColumnRange.of("abc", "20", IntegerType.INTEGER).contains("10"));
+    assertThrows(
+        TypeValidationException.class,
+        () -> ColumnRange.of(null, "20", IntegerType.INTEGER).canBeLess("10"));
+    assertThrows(
+        TypeMismatchException.class,
+        () -> ColumnRange.of("10", "20", IntegerType.INTEGER)
+            .contains(ColumnRange.of("2020-11-10", DateType.DATE)));
+  }
+}
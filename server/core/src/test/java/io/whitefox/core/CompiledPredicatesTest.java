@@ -0,0 +1,69 @@
+package io.whitefox.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.whitefox.core.services.capabilities.ResponseFormat;
+import io.whitefox.core.types.DateType;
+import io.whitefox.core.types.IntegerType;
+import io.whitefox.core.types.StructField;
+import io.whitefox.core.types.StructType;
+import io.whitefox.core.types.predicates.EvalContext;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+public class CompiledPredicatesTest {
+
+  private final Metadata metadata = new Metadata(
+      "id",
+      Optional.empty(),
+      Optional.empty(),
+      ResponseFormat.parquet,
+      new TableSchema(new StructType(List.of(
+          new StructField("date", DateType.DATE, true, Map.of()),
+          new StructField("id", IntegerType.INTEGER, true, Map.of())))),
+      List.of("date"),
+      Map.of(),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty());
+
+  private final EvalContext file =
+      new EvalContext(Map.of("date", "2021-09-12"), Map.of("id", Pair.of("0", "10")));
+
+  @Test
+  void evaluateCompiledPredicatesOnFiles() {
+    var json = "{\"op\":\"equal\",\"children\":["
+        + "{\"op\":\"column\",\"name\":\"date\",\"valueType\":\"date\"},"
+        + "{\"op\":\"literal\",\"value\":\"2021-09-12\",\"valueType\":\"date\"}]}";
+    var matching =
+        CompiledPredicates.compile(Optional.of(json), Optional.of(List.of("id < 5")), metadata);
+    assertTrue(matching.test(file, "file"));
+    var notMatching =
+        CompiledPredicates.compile(Optional.of(json), Optional.of(List.of("id > 20")), metadata);
+    assertFalse(notMatching.test(file, "file"));
+  }
+
+  @Test
+  void skipPredicatesThatCannotBeCompiled() {
+    var invalid = "{\"op\":\"equal\",\"children\":["
+        + "{\"op\":\"column\",\"name\":\"id\",\"valueType\":\"int\"},"
+        + "{\"op\":\"literal\",\"value\":\"abcd\",\"valueType\":\"int\"}]}";
+    var predicates = CompiledPredicates.compile(
+        Optional.of(invalid), Optional.of(List.of("date LIKE '2021-09-12'")), metadata);
+    assertTrue(predicates.isEmpty());
+    assertTrue(predicates.test(file, "file"));
+  }
+
+  @Test
+  void keepFilesThatCannotBeEvaluated() {
+    var predicates = CompiledPredicates.compile(
+        Optional.empty(), Optional.of(List.of("id < 5")), metadata);
+    assertEquals(false, predicates.isEmpty());
+    assertTrue(predicates.test(new EvalContext(Map.of(), Map.of()), "file"));
+  }
+}
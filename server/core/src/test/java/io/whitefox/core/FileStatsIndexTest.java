@@ -0,0 +1,63 @@
+package io.whitefox.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.whitefox.core.types.DoubleType;
+import io.whitefox.core.types.IntegerType;
+import io.whitefox.core.types.StringType;
+import io.whitefox.core.types.predicates.NonExistingColumnException;
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class FileStatsIndexTest {
+
+  private final FileStatsIndex index = FileStatsIndex.of(Arrays.asList(
+      "{\"numRecords\":10,\"minValues\":{\"id\":0,\"name\":\"a\",\"score\":1.5},"
+          + "\"maxValues\":{\"id\":9,\"name\":\"f\",\"score\":2},\"nullCount\":{\"id\":0}}",
+      "{\"numRecords\":5,\"minValues\":{\"id\":10},\"maxValues\":{\"id\":14}}",
+      null,
+      "not json"));
+
+  @Test
+  void indexStatsOfEveryFile() throws NonExistingColumnException {
+    assertEquals(4, index.size());
+    assertTrue(index.columnRange("id", 0, IntegerType.INTEGER).contains("5"));
+    assertTrue(index.columnRange("id", 1, IntegerType.INTEGER).contains("12"));
+    assertFalse(index.columnRange("id", 1, IntegerType.INTEGER).contains("5"));
+    assertTrue(index.columnRange("name", 0, StringType.STRING).contains("c"));
+    assertTrue(index.columnRange("score", 0, DoubleType.DOUBLE).contains("1.75"));
+    assertEquals(Set.of("id", "name", "score"), index.columns(0));
+    assertEquals(Set.of("id"), index.columns(1));
+  }
+
+  @Test
+  void rangesAreBuiltOncePerType() throws NonExistingColumnException {
+    assertSame(
+        index.columnRange("id", 0, IntegerType.INTEGER),
+        index.columnRange("id", 0, IntegerType.INTEGER));
+    assertTrue(index.columnRange("score", 0, DoubleType.DOUBLE).canBeGreater("1.99"));
+  }
+
+  @Test
+  void recordsAndNullCounts() {
+    assertEquals(OptionalLong.of(10), index.numRecords(0));
+    assertEquals(OptionalLong.of(5), index.numRecords(1));
+    assertEquals(OptionalLong.of(0), index.nullCount("id", 0));
+    assertEquals(OptionalLong.empty(), index.nullCount("id", 1));
+  }
+
+  @Test
+  void filesWithoutStats() {
+    assertFalse(index.hasStats("id", 2));
+    assertFalse(index.hasStats("id", 3));
+    assertEquals(OptionalLong.empty(), index.numRecords(3));
+    assertThrows(
+        NonExistingColumnException.class, () -> index.columnRange("id", 2, IntegerType.INTEGER));
+  }
+}
@@ -0,0 +1,46 @@
+package io.whitefox.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class RecordsLimitTest {
+
+  private final List<OptionalLong> files = List.of(
+      OptionalLong.of(4), OptionalLong.empty(), OptionalLong.of(4), OptionalLong.of(4));
+
+  private List<OptionalLong> limit(ReadTableRequest request) {
+    return RecordsLimit.apply(request, files.stream(), f -> f).collect(Collectors.toList());
+  }
+
+  @Test
+  void stopOnceLimitIsCovered() {
+    assertEquals(files.subList(0, 1), limit(request(Optional.empty(), 3L)));
+    // files without a number of records do not count
+    assertEquals(files.subList(0, 3), limit(request(Optional.empty(), 5L)));
+    assertEquals(files, limit(request(Optional.empty(), 100L)));
+    assertEquals(files, limit(request(Optional.empty(), null)));
+  }
+
+  @Test
+  void ignoreLimitWithPredicates() {
+    assertEquals(files, limit(request(Optional.of(List.of("id > 3")), 1L)));
+    assertEquals(
+        files,
+        RecordsLimit.apply(
+                new ReadTableRequest.ReadTableCurrentVersion(
+                    Optional.empty(), Optional.of("{}"), Optional.of(1L)),
+                files.stream(),
+                f -> f)
+            .collect(Collectors.toList()));
+  }
+
+  private static ReadTableRequest request(Optional<List<String>> predicates, Long limit) {
+    return new ReadTableRequest.ReadTableCurrentVersion(
+        predicates, Optional.empty(), Optional.ofNullable(limit));
+  }
+}
@@ -0,0 +1,63 @@
+package io.whitefox.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class TableFileIdHashFunctionTest {
+
+  private final TableFileIdHashFunction murmur3 = TableFileIdHashFunction.named("murmur3");
+  private final TableFileIdHashFunction md5 = TableFileIdHashFunction.named("md5");
+
+  @Test
+  public void hashWithMurmur3() {
+    assertEquals("00000000000000000000000000000000", murmur3.hash(""));
+    assertEquals(
+        "6c1b07bc7bbc4be347939ac4a93c437a",
+        murmur3.hash("The quick brown fox jumps over the lazy dog"));
+  }
+
+  @Test
+  public void hashNonAsciiAndLongPathsWithMurmur3() {
+    var path = "s3a://bucket/table/àccénted/part-00000.parquet";
+    assertEquals(murmur3.hash(path), murmur3.hash(path));
+    assertNotEquals(murmur3.hash(path), murmur3.hash(path.replace('à', 'a')));
+    var longPath = "s3a://bucket/" + "table/".repeat(100) + "part-00000.parquet";
+    assertEquals(32, murmur3.hash(longPath).length());
+    assertNotEquals(murmur3.hash(longPath), murmur3.hash(longPath + "x"));
+  }
+
+  @Test
+  public void hashWithMd5LikeThePreviousVersions() {
+    assertEquals("D41D8CD98F00B204E9800998ECF8427E", md5.hash(""));
+    assertEquals(
+        "9E107D9D372BB6826BD81D3542A419D6",
+        md5.hash("The quick brown fox jumps over the lazy dog"));
+  }
+
+  @Test
+  public void failOnUnknownHashFunction() {
+    assertThrows(IllegalArgumentException.class, () -> TableFileIdHashFunction.named("sha1"));
+  }
+
+  @Test
+  public void memoizeTheIdOfAFile() {
+    var hashes = new AtomicInteger();
+    TableFileIdHashFunction counting = id -> {
+      hashes.incrementAndGet();
+      return murmur3.hash(id);
+    };
+    var file = new TableFileToBeSigned(
+        "s3a://bucket/table/part-00000.parquet", 10, 0L, Optional.of(0L), "", Map.of());
+    var id = file.id(counting);
+    assertSame(id, file.id(counting));
+    assertEquals(1, hashes.get());
+    assertEquals(md5.hash(file.url()), file.id(md5));
+  }
+}
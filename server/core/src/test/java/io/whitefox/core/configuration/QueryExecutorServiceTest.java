@@ -0,0 +1,74 @@
+package io.whitefox.core.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class QueryExecutorServiceTest {
+
+  private final QueryExecutorService queryExecutor = new QueryExecutorService(2, 1, 10);
+
+  @AfterEach
+  void close() {
+    queryExecutor.close();
+  }
+
+  @Test
+  void preserveOrderOfChunks() {
+    var items = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+    var result = queryExecutor
+        .mapChunks(items, chunk -> chunk.stream()
+            .filter(i -> i % 2 == 0)
+            .map(i -> i * 10)
+            .collect(Collectors.toList()))
+        .collect(Collectors.toList());
+    assertEquals(
+        IntStream.range(0, 500).map(i -> i * 20).boxed().collect(Collectors.toList()), result);
+  }
+
+  @Test
+  void readLazyItemsAChunkAtATime() {
+    var read = new AtomicInteger();
+    var closed = new AtomicBoolean();
+    var items = IntStream.range(0, 1000)
+        .peek(i -> read.incrementAndGet())
+        .boxed()
+        .onClose(() -> closed.set(true));
+    try (var result = queryExecutor.mapChunks(items, chunk -> chunk)) {
+      assertEquals(List.of(0, 1, 2), result.limit(3).collect(Collectors.toList()));
+      // at most parallelism chunks have been read
+      assertTrue(read.get() <= 20);
+    }
+    assertTrue(closed.get());
+  }
+
+  @Test
+  void processSmallListsOnCallingThread() {
+    var caller = Thread.currentThread().getName();
+    var threads = queryExecutor
+        .mapChunks(List.of(1, 2, 3), chunk -> List.of(Thread.currentThread().getName()))
+        .collect(Collectors.toList());
+    assertEquals(List.of(caller), threads);
+  }
+
+  @Test
+  void propagateFailures() {
+    var items = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+    assertThrows(IllegalStateException.class, () -> queryExecutor
+        .mapChunks(items, chunk -> {
+          if (chunk.contains(55)) {
+            throw new IllegalStateException("boom");
+          }
+          return chunk;
+        })
+        .count());
+  }
+}
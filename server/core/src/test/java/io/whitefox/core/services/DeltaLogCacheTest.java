@@ -0,0 +1,47 @@
+package io.whitefox.core.services;
+
+import static io.whitefox.DeltaTestUtils.deltaTable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.whitefox.core.InternalTable;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+@DisabledOnOs(OS.WINDOWS)
+public class DeltaLogCacheTest {
+
+  private final DeltaLogCache deltaLogCache =
+      new DeltaLogCache(
+          10, Duration.ofMinutes(1), Duration.ofSeconds(30), new HadoopConfigBuilder());
+
+  @Test
+  public void reuseDeltaLogOfSameTable() {
+    var table = deltaTable("delta-table");
+    var location = ((InternalTable.DeltaTableProperties) table.properties()).location();
+    var first = deltaLogCache.forTable(table.provider().storage(), location);
+    var second = deltaLogCache.forTable(table.provider().storage(), location);
+    assertSame(first, second);
+    assertEquals(0, second.snapshot().getVersion());
+    assertEquals(1, deltaLogCache.stats().missCount());
+    assertEquals(1, deltaLogCache.stats().hitCount());
+  }
+
+  @Test
+  public void differentTablesAreCachedSeparately() {
+    var table1 = deltaTable("delta-table");
+    var table2 = deltaTable("partitioned-delta-table");
+    var first = deltaLogCache.forTable(
+        table1.provider().storage(),
+        ((InternalTable.DeltaTableProperties) table1.properties()).location());
+    var second = deltaLogCache.forTable(
+        table2.provider().storage(),
+        ((InternalTable.DeltaTableProperties) table2.properties()).location());
+    assertEquals(2, deltaLogCache.stats().missCount());
+    assertEquals(0, deltaLogCache.stats().hitCount());
+    assertNotSame(first, second);
+  }
+}
@@ -7,10 +7,16 @@ import static org.wildfly.common.Assert.assertTrue;
 
 import io.whitefox.core.Protocol;
 import io.whitefox.core.ReadTableRequest;
+import io.whitefox.core.ReadTableResultToBeSigned;
 import io.whitefox.core.SharedTable;
+import io.whitefox.core.TableFileToBeSigned;
+import io.whitefox.core.configuration.QueryExecutorService;
+import java.time.Duration;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
@@ -84,7 +90,7 @@ public class DeltaSharedTableTest {
         Optional.empty(), Optional.empty(), Optional.empty());
     var response = DTable.queryTable(request);
     assertEquals(response.protocol(), new Protocol(Optional.of(1)));
-    assertEquals(response.other().size(), 9);
+    assertEquals(response.other().count(), 9L);
   }
 
   @Test
@@ -107,10 +113,113 @@ public class DeltaSharedTableTest {
       var request = new ReadTableRequest.ReadTableCurrentVersion(
           Optional.of(p.getLeft()), Optional.empty(), Optional.empty());
       var response = DTable.queryTable(request);
-      assertEquals(p.getRight(), response.other().size());
+      assertEquals((long) p.getRight(), response.other().count());
     });
   }
 
+  @Test
+  void queryTableWithSqlPredicatesOnIndexedSnapshot() {
+    var PTable = new SharedTable(
+        "partitioned-delta-table", "default", "share1", deltaTable("partitioned-delta-table"));
+    // the first table indexes the snapshot on a filtered query, the second one on a query without
+    // any filter
+    var scanned = DeltaSharedTable.of(PTable);
+    var indexed = DeltaSharedTable.of(PTable);
+    indexed.queryTable(new ReadTableRequest.ReadTableCurrentVersion(
+        Optional.empty(), Optional.empty(), Optional.empty()));
+
+    List.of("date = '2021-08-15'", "date < '2021-08-14'", "date <> '2021-08-15'")
+        .forEach(predicate -> {
+          var request = new ReadTableRequest.ReadTableCurrentVersion(
+              Optional.of(List.of(predicate)), Optional.empty(), Optional.empty());
+          assertEquals(files(indexed.queryTable(request)), files(scanned.queryTable(request)));
+        });
+  }
+
+  @Test
+  void queryTableWithPartitionFilterIndexesTheSnapshot() {
+    var PTable = new SharedTable(
+        "partitioned-delta-table", "default", "share1", deltaTable("partitioned-delta-table"));
+    var snapshotIndexCache = new DeltaSnapshotIndexCache(1000, Duration.ofMinutes(1), 100);
+    var table = DeltaSharedTable.of(
+        PTable,
+        TableSchemaConverter.INSTANCE,
+        new DeltaLogCache(),
+        new ReadTableResultCache(),
+        snapshotIndexCache,
+        new QueryExecutorService(2, 1, 2));
+
+    assertEquals(
+        4L,
+        table
+            .queryTable(new ReadTableRequest.ReadTableCurrentVersion(
+                Optional.of(List.of("date = '2021-08-15'")), Optional.empty(), Optional.empty()))
+            .other()
+            .count());
+    assertEquals(1, snapshotIndexCache.stats().loadCount());
+    // the queries with other partition filters are served from the index
+    assertEquals(
+        5L,
+        table
+            .queryTable(new ReadTableRequest.ReadTableCurrentVersion(
+                Optional.of(List.of("date < '2021-08-14'")), Optional.empty(), Optional.empty()))
+            .other()
+            .count());
+    assertEquals(1, snapshotIndexCache.stats().loadCount());
+    assertEquals(1, snapshotIndexCache.stats().hitCount());
+  }
+
+  @Test
+  void queryTableLargerThanIndexableStreamsItsFiles() {
+    var PTable = new SharedTable(
+        "partitioned-delta-table", "default", "share1", deltaTable("partitioned-delta-table"));
+    var indexed = DeltaSharedTable.of(PTable);
+    // the table has 9 files, more than can be indexed
+    var snapshotIndexCache = new DeltaSnapshotIndexCache(1000, Duration.ofMinutes(1), 2);
+    var readTableResultCache = new ReadTableResultCache();
+    var streamed = DeltaSharedTable.of(
+        PTable,
+        TableSchemaConverter.INSTANCE,
+        new DeltaLogCache(),
+        readTableResultCache,
+        snapshotIndexCache,
+        new QueryExecutorService(2, 1, 2));
+
+    List.of(
+            new ReadTableRequest.ReadTableCurrentVersion(
+                Optional.empty(), Optional.empty(), Optional.empty()),
+            new ReadTableRequest.ReadTableCurrentVersion(
+                Optional.of(List.of("date < '2021-08-14'")), Optional.empty(), Optional.empty()),
+            new ReadTableRequest.ReadTableCurrentVersion(
+                Optional.of(List.of("date <> '2021-08-15'")), Optional.empty(), Optional.empty()))
+        .forEach(request -> assertEquals(
+            files(indexed.queryTable(request)), files(streamed.queryTable(request))));
+    assertEquals(
+        3L,
+        streamed
+            .queryTable(new ReadTableRequest.ReadTableCurrentVersion(
+                Optional.empty(), Optional.empty(), Optional.of(3L)))
+            .other()
+            .count());
+    // neither the index nor the results are cached
+    assertEquals(0, snapshotIndexCache.stats().loadCount());
+    assertEquals(0, readTableResultCache.stats().loadCount());
+  }
+
+  @Test
+  void queryTableWithLimitHint() {
+    var PTable = new SharedTable(
+        "partitioned-delta-table", "default", "share1", deltaTable("partitioned-delta-table"));
+    var DTable = DeltaSharedTable.of(PTable);
+    // every file of the table holds a single record
+    var limited = DTable.queryTable(new ReadTableRequest.ReadTableCurrentVersion(
+        Optional.empty(), Optional.empty(), Optional.of(3L)));
+    assertEquals(3, limited.other().count());
+    var filtered = DTable.queryTable(new ReadTableRequest.ReadTableCurrentVersion(
+        Optional.of(List.of("date > '2021-08-04'")), Optional.empty(), Optional.of(3L)));
+    assertEquals(9, filtered.other().count());
+  }
+
   @Test
   void queryTableWithNonPartitionSqlPredicate() {
     var predicates = List.of("id < 30");
@@ -121,7 +230,7 @@ public class DeltaSharedTableTest {
     var request = new ReadTableRequest.ReadTableCurrentVersion(
         Optional.of(predicates), Optional.empty(), Optional.empty());
     var response = DTable.queryTable(request);
-    assertEquals(1, response.other().size());
+    assertEquals(1, response.other().count());
   }
 
   @Test
@@ -212,7 +321,13 @@ public class DeltaSharedTableTest {
       var request = new ReadTableRequest.ReadTableCurrentVersion(
           Optional.empty(), Optional.of(p.getLeft()), Optional.empty());
       var response = DTable.queryTable(request);
-      assertEquals(p.getRight(), response.other().size());
+      assertEquals((long) p.getRight(), response.other().count());
     });
   }
+
+  private static Set<TableFileToBeSigned> files(ReadTableResultToBeSigned result) {
+    try (var files = result.other()) {
+      return files.collect(Collectors.toSet());
+    }
+  }
 }
@@ -0,0 +1,193 @@
+package io.whitefox.core.services;
+
+import static io.whitefox.TestUtils.getS3Storage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.whitefox.S3TestConfig;
+import io.whitefox.core.AwsCredentials;
+import io.whitefox.core.Principal;
+import io.whitefox.core.TableFile;
+import io.whitefox.core.TableFileToBeSigned;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+public class FileSignerFactoryImplTest {
+
+  private final CountingS3ClientFactory s3ClientFactory = new CountingS3ClientFactory();
+  private final Instant now = Instant.now();
+  private final PresignedUrlCache presignedUrlCache =
+      new PresignedUrlCache(100, 0.5, Clock.fixed(now, ZoneOffset.UTC));
+  private final FileSignerFactoryImpl fileSignerFactory =
+      new FileSignerFactoryImpl(s3ClientFactory, presignedUrlCache);
+  private final Principal principal = new Principal("Mr. Fox");
+
+  @Test
+  public void reusePresignerOfSameStorage() throws Exception {
+    var storage = getS3Storage(principal, new S3TestConfig("eu-west-1", "accessKey", "secretKey"));
+    try (var ignored = fileSignerFactory.newFileSigner(storage)) {
+      assertEquals(1, s3ClientFactory.presigners);
+    }
+    try (var ignored = fileSignerFactory.newFileSigner(storage)) {
+      assertEquals(1, s3ClientFactory.presigners);
+    }
+    fileSignerFactory.close();
+  }
+
+  @Test
+  public void rebuildPresignerWhenCredentialsChange() throws Exception {
+    try (var ignored = fileSignerFactory.newFileSigner(
+        getS3Storage(principal, new S3TestConfig("eu-west-1", "accessKey", "secretKey")))) {
+      assertEquals(1, s3ClientFactory.presigners);
+    }
+    try (var ignored = fileSignerFactory.newFileSigner(
+        getS3Storage(principal, new S3TestConfig("eu-west-1", "accessKey", "rotatedKey")))) {
+      assertEquals(2, s3ClientFactory.presigners);
+    }
+    fileSignerFactory.close();
+  }
+
+  @Test
+  public void closeReplacedPresignerOnceItsSignersAreClosed() throws Exception {
+    var file = new TableFileToBeSigned(
+        "s3a://bucket/table/part-00000.snappy.parquet", 10, 0L, Optional.of(0L), "", Map.of());
+    var signer = fileSignerFactory.newFileSigner(
+        getS3Storage(principal, new S3TestConfig("eu-west-1", "accessKey", "secretKey")));
+    try (var rotated = fileSignerFactory.newFileSigner(
+        getS3Storage(principal, new S3TestConfig("eu-west-1", "accessKey", "rotatedKey")))) {
+      assertEquals(2, s3ClientFactory.presigners);
+      // the signer created before the rotation still signs, and its URLs are not served to the
+      // signers of the rotated credentials
+      var signedBefore = signer.sign(file);
+      assertNotEquals(signedBefore.url(), rotated.sign(file).url());
+      assertEquals(0, s3ClientFactory.closedPresigners);
+    }
+    signer.close();
+    signer.close();
+    assertEquals(1, s3ClientFactory.closedPresigners);
+    fileSignerFactory.close();
+    assertEquals(2, s3ClientFactory.closedPresigners);
+  }
+
+  @Test
+  public void reuseUrlsSignedForSameStorage() throws Exception {
+    var storage = getS3Storage(principal, new S3TestConfig("eu-west-1", "accessKey", "secretKey"));
+    var file = new TableFileToBeSigned(
+        "s3a://bucket/table/part-00000.snappy.parquet", 10, 0L, Optional.of(0L), "", Map.of());
+    TableFile first;
+    try (var signer = fileSignerFactory.newFileSigner(storage)) {
+      first = signer.sign(file);
+    }
+    try (var signer = fileSignerFactory.newFileSigner(storage)) {
+      var second = signer.sign(file);
+      assertEquals(first.url(), second.url());
+      assertEquals(first.expirationTimestamp(), second.expirationTimestamp());
+    }
+    assertEquals(1, presignedUrlCache.stats().hitCount());
+    // the URLs signed with rotated credentials are not served anymore
+    try (var signer = fileSignerFactory.newFileSigner(
+        getS3Storage(principal, new S3TestConfig("eu-west-1", "accessKey", "rotatedKey")))) {
+      signer.sign(file);
+    }
+    assertEquals(1, presignedUrlCache.stats().hitCount());
+    fileSignerFactory.close();
+  }
+
+  @Test
+  public void signAllWithTheSigningKeyOfTheSdk() throws Exception {
+    var storage = getS3Storage(principal, new S3TestConfig("eu-west-1", "accessKey", "secretKey"));
+    var keys = List.of("table/part-00000.snappy.parquet", "table/date=2024-05-01/part 00001");
+    List<TableFile> signed;
+    try (var signer = fileSignerFactory.newFileSigner(storage)) {
+      signed = signer.signAll(keys.stream()
+          .map(key -> new TableFileToBeSigned(
+              "s3a://bucket/" + key, 10, 0L, Optional.of(0L), "", Map.of()))
+          .collect(Collectors.toList()));
+    }
+    assertEquals(keys.size(), signed.size());
+    for (int i = 0; i < keys.size(); i++) {
+      // every URL is one the SDK would have presigned for its own key at the same time
+      assertTrue(PresignedUrlTemplate.of(signed.get(i).url(), keys.get(i), "secretKey")
+          .isPresent());
+      assertEquals(signed.get(0).expirationTimestamp(), signed.get(i).expirationTimestamp());
+    }
+    // and is cached as if signed on its own
+    try (var signer = fileSignerFactory.newFileSigner(storage)) {
+      assertEquals(
+          signed.get(1).url(),
+          signer
+              .sign(new TableFileToBeSigned(
+                  "s3a://bucket/" + keys.get(1), 10, 0L, Optional.of(0L), "", Map.of()))
+              .url());
+    }
+    assertEquals(1, presignedUrlCache.stats().hitCount());
+    fileSignerFactory.close();
+  }
+
+  @Test
+  public void signForTheDurationOfTheShare() throws Exception {
+    var factory = new FileSignerFactoryImpl(
+        s3ClientFactory,
+        presignedUrlCache,
+        new SignatureDurationPolicy(
+            Duration.ofHours(1), Optional.of(List.of("longShare=PT6H")), Optional.empty()),
+        "murmur3");
+    var storage = getS3Storage(principal, new S3TestConfig("eu-west-1", "accessKey", "secretKey"));
+    var file = new TableFileToBeSigned(
+        "s3a://bucket/table/part-00000.snappy.parquet", 10, 0L, Optional.of(0L), "", Map.of());
+    try (var signer = factory.newFileSigner(storage, Optional.of("longShare"))) {
+      // the signing time of the URL is truncated to seconds
+      assertTrue(signer.sign(file).expirationTimestamp()
+          >= now.plus(Duration.ofHours(6)).minusSeconds(1).toEpochMilli());
+      // half of the duration of the URLs is left to download the files
+      assertEquals(now.plus(Duration.ofHours(3)), signer.refreshBefore().orElseThrow());
+    }
+    try (var signer = factory.newFileSigner(storage, Optional.of("otherShare"))) {
+      assertTrue(signer.sign(file).expirationTimestamp()
+          < now.plus(Duration.ofHours(2)).toEpochMilli());
+    }
+    factory.close();
+  }
+
+  private static final class CountingS3ClientFactory implements S3ClientFactory {
+    private final S3ClientFactoryImpl delegate = new S3ClientFactoryImpl();
+    private int presigners = 0;
+    private int closedPresigners = 0;
+
+    @Override
+    public S3Client newS3Client(AwsCredentials.SimpleAwsCredentials awsCredentials) {
+      return delegate.newS3Client(awsCredentials);
+    }
+
+    @Override
+    public S3Presigner newS3Presigner(AwsCredentials.SimpleAwsCredentials awsCredentials) {
+      presigners++;
+      var presigner = delegate.newS3Presigner(awsCredentials);
+      return (S3Presigner) Proxy.newProxyInstance(
+          S3Presigner.class.getClassLoader(),
+          new Class<?>[] {S3Presigner.class},
+          (proxy, method, args) -> {
+            if (method.getName().equals("close")) {
+              closedPresigners++;
+            }
+            try {
+              return method.invoke(presigner, args);
+            } catch (InvocationTargetException e) {
+              throw e.getCause();
+            }
+          });
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package io.whitefox.core.services;
+
+import static io.whitefox.TestUtils.getS3Storage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.whitefox.S3TestConfig;
+import io.whitefox.core.Principal;
+import org.junit.jupiter.api.Test;
+
+public class HadoopConfigBuilderTest {
+
+  private final HadoopConfigBuilder hadoopConfigBuilder = new HadoopConfigBuilder();
+  private final Principal principal = new Principal("Mr. Fox");
+
+  @Test
+  public void reuseConfigurationOfSameStorage() {
+    var first = hadoopConfigBuilder.buildConfig(
+        getS3Storage(principal, new S3TestConfig("eu-west-1", "accessKey", "secretKey")));
+    var second = hadoopConfigBuilder.buildConfig(
+        getS3Storage(principal, new S3TestConfig("eu-west-1", "accessKey", "secretKey")));
+    assertSame(first, second);
+  }
+
+  @Test
+  public void rebuildConfigurationWhenStorageChanges() {
+    var first = hadoopConfigBuilder.buildConfig(
+        getS3Storage(principal, new S3TestConfig("eu-west-1", "accessKey", "secretKey")));
+    var second = hadoopConfigBuilder.buildConfig(
+        getS3Storage(principal, new S3TestConfig("eu-west-1", "accessKey", "rotatedKey")));
+    assertNotSame(first, second);
+    assertEquals("rotatedKey", second.get("fs.s3a.secret.key"));
+  }
+}
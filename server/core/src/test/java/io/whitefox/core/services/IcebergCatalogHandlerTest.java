@@ -0,0 +1,103 @@
+package io.whitefox.core.services;
+
+import static io.whitefox.IcebergTestUtils.icebergTableWithHadoopCatalog;
+import static io.whitefox.IcebergTestUtils.icebergTablesRoot;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.whitefox.IcebergTestUtils;
+import io.whitefox.MutableClock;
+import io.whitefox.core.Metastore;
+import io.whitefox.core.Principal;
+import io.whitefox.core.Storage;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.iceberg.BaseMetastoreCatalog;
+import org.apache.iceberg.CatalogProperties;
+import org.apache.iceberg.hadoop.HadoopCatalog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+@DisabledOnOs(OS.WINDOWS)
+public class IcebergCatalogHandlerTest {
+
+  private final MutableClock clock = new MutableClock();
+  private final IcebergCatalogHandler icebergCatalogHandler = new IcebergCatalogHandler(
+      new AwsGlueConfigBuilder(), new HadoopConfigBuilder(), Duration.ofHours(2), clock);
+  private final List<TrackedCatalog> built = new ArrayList<>();
+
+  private final Metastore metastore =
+      icebergTableWithHadoopCatalog("test_db", "icebergtable1").provider().metastore().get();
+  private final Storage storage =
+      icebergTableWithHadoopCatalog("test_db", "icebergtable1").provider().storage();
+
+  @Test
+  public void reuseTheCatalogOfAnUnchangedDefinition() {
+    var first = catalog(metastore);
+    var second = catalog(metastore);
+
+    assertSame(first, second);
+    assertEquals(1, built.size());
+  }
+
+  @Test
+  public void closeAReplacedCatalogAfterTheGracePeriod() {
+    var replaced = catalog(metastore);
+    var changed = IcebergTestUtils.getLocalHadoopMetastore(
+        new Principal("Mr. Fox"), icebergTablesRoot.resolve("other").toString());
+
+    var rebuilt = catalog(changed);
+    assertNotSame(replaced, rebuilt);
+    assertFalse(built.get(0).closed);
+
+    clock.tickSeconds(Duration.ofHours(1).toSeconds());
+    assertSame(rebuilt, catalog(changed));
+    assertFalse(built.get(0).closed);
+
+    clock.tickSeconds(Duration.ofHours(1).toSeconds());
+    assertSame(rebuilt, catalog(changed));
+    assertTrue(built.get(0).closed);
+    assertFalse(built.get(1).closed);
+  }
+
+  @Test
+  public void closeAllTheCatalogsOnClose() {
+    catalog(metastore);
+    catalog(IcebergTestUtils.getLocalHadoopMetastore(
+        new Principal("Mr. Fox"), icebergTablesRoot.resolve("other").toString()));
+
+    icebergCatalogHandler.close();
+
+    assertEquals(2, built.size());
+    assertTrue(built.stream().allMatch(catalog -> catalog.closed));
+  }
+
+  private BaseMetastoreCatalog catalog(Metastore metastore) {
+    return icebergCatalogHandler.catalog(metastore, storage, (m, s) -> {
+      var catalog = new TrackedCatalog();
+      catalog.setConf(new Configuration());
+      catalog.initialize(
+          m.name(), Map.of(CatalogProperties.WAREHOUSE_LOCATION, icebergTablesRoot.toString()));
+      built.add(catalog);
+      return catalog;
+    });
+  }
+
+  private static final class TrackedCatalog extends HadoopCatalog {
+    private boolean closed = false;
+
+    @Override
+    public void close() throws IOException {
+      closed = true;
+      super.close();
+    }
+  }
+}
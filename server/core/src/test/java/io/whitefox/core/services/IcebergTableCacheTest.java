@@ -0,0 +1,49 @@
+package io.whitefox.core.services;
+
+import static io.whitefox.IcebergTestUtils.icebergTableWithHadoopCatalog;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.whitefox.MutableClock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.catalog.TableIdentifier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+@DisabledOnOs(OS.WINDOWS)
+public class IcebergTableCacheTest {
+
+  private final IcebergCatalogHandler icebergCatalogHandler =
+      new IcebergCatalogHandler(new AwsGlueConfigBuilder(), new HadoopConfigBuilder());
+  private final MutableClock clock = new MutableClock();
+  private final IcebergTableCache icebergTableCache =
+      new IcebergTableCache(10, Duration.ofMinutes(10), Duration.ofSeconds(30), false, clock);
+
+  @Test
+  public void reuseTableAcrossFreshnessWindows() {
+    var internalTable = icebergTableWithHadoopCatalog("test_db", "icebergtable1");
+    var metastore = internalTable.provider().metastore().get();
+    var storage = internalTable.provider().storage();
+    var tableId = TableIdentifier.of("test_db", "icebergtable1");
+    var loads = new AtomicInteger();
+    Supplier<Table> load = () -> {
+      loads.incrementAndGet();
+      return icebergCatalogHandler.loadTableWithHadoopCatalog(metastore, storage, tableId);
+    };
+
+    var first = icebergTableCache.getTable(metastore, storage, tableId, load);
+    var second = icebergTableCache.getTable(metastore, storage, tableId, load);
+    clock.tickSeconds(60);
+    var refreshed = icebergTableCache.getTable(metastore, storage, tableId, load);
+
+    assertSame(first, second);
+    assertSame(first, refreshed);
+    assertEquals(1, loads.get());
+    assertEquals(1, icebergTableCache.stats().missCount());
+    assertEquals(2, icebergTableCache.stats().hitCount());
+  }
+}
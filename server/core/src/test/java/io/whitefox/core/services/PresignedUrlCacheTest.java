@@ -0,0 +1,121 @@
+package io.whitefox.core.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.whitefox.MutableClock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class PresignedUrlCacheTest {
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2024-05-01T12:00:00Z"));
+  private final PresignedUrlCache presignedUrlCache =
+      new PresignedUrlCache(100, 0.5, clock);
+  private final AtomicInteger signed = new AtomicInteger();
+
+  @Test
+  public void reuseUrlsValidForLongEnough() {
+    var first = get("storage", "key", Duration.ofHours(1));
+    var second = get("storage", "key", Duration.ofHours(1));
+    assertSame(first, second);
+    assertEquals(1, signed.get());
+    get("storage", "otherKey", Duration.ofHours(1));
+    assertEquals(2, signed.get());
+  }
+
+  @Test
+  public void signAgainUrlsAboutToExpire() {
+    get("storage", "key", Duration.ofMinutes(10));
+    get("storage", "key", Duration.ofMinutes(10));
+    assertEquals(2, signed.get());
+  }
+
+  @Test
+  public void cacheUrlsOfDifferentDurationsApart() {
+    get("storage", Duration.ofHours(1), "key", Duration.ofHours(1));
+    get("storage", Duration.ofHours(6), "key", Duration.ofHours(6));
+    assertEquals(2, signed.get());
+    // URLs are reused until half of their duration is left, however long it is
+    get("storage", Duration.ofMinutes(20), "key", Duration.ofMinutes(20));
+    get("storage", Duration.ofMinutes(20), "key", Duration.ofMinutes(20));
+    assertEquals(3, signed.get());
+    assertEquals(
+        Duration.ofMinutes(10), presignedUrlCache.minRemainingLifetime(Duration.ofMinutes(20)));
+    assertEquals(
+        Duration.ofHours(3), presignedUrlCache.minRemainingLifetime(Duration.ofHours(6)));
+  }
+
+  @Test
+  public void rejectInvalidMinRemainingRatio() {
+    assertThrows(IllegalArgumentException.class, () -> new PresignedUrlCache(100, 0, clock));
+    assertThrows(IllegalArgumentException.class, () -> new PresignedUrlCache(100, 1, clock));
+  }
+
+  @Test
+  public void refreshBeforeTheMinimumRemainingLifetime() {
+    assertEquals(
+        Instant.parse("2024-05-01T12:30:00Z"),
+        presignedUrlCache.refreshBefore(Duration.ofHours(1)));
+    clock.tickSeconds(60);
+    assertEquals(
+        Instant.parse("2024-05-01T12:11:00Z"),
+        presignedUrlCache.refreshBefore(Duration.ofMinutes(20)));
+  }
+
+  @Test
+  public void invalidateUrlsOfStorage() {
+    get("storage", "key", Duration.ofHours(1));
+    get("otherStorage", "key", Duration.ofHours(1));
+    presignedUrlCache.invalidate("storage", 0);
+    get("storage", "key", Duration.ofHours(1));
+    get("otherStorage", "key", Duration.ofHours(1));
+    assertEquals(3, signed.get());
+  }
+
+  @Test
+  public void cacheUrlsOfDifferentCredentialsApart() {
+    get("storage", 0, "key");
+    get("storage", 1, "key");
+    assertEquals(2, signed.get());
+    presignedUrlCache.invalidate("storage", 0);
+    get("storage", 1, "key");
+    assertEquals(2, signed.get());
+    get("storage", 0, "key");
+    assertEquals(3, signed.get());
+  }
+
+  private PresignedUrlCache.PresignedUrl get(String storage, String key, Duration lifetime) {
+    return get(storage, Duration.ofHours(1), key, lifetime);
+  }
+
+  private PresignedUrlCache.PresignedUrl get(
+      String storage, long credentialsGeneration, String key) {
+    return get(storage, credentialsGeneration, Duration.ofHours(1), key, Duration.ofHours(1));
+  }
+
+  private PresignedUrlCache.PresignedUrl get(
+      String storage, Duration signatureDuration, String key, Duration lifetime) {
+    return get(storage, 0, signatureDuration, key, lifetime);
+  }
+
+  private PresignedUrlCache.PresignedUrl get(
+      String storage,
+      long credentialsGeneration,
+      Duration signatureDuration,
+      String key,
+      Duration lifetime) {
+    return presignedUrlCache.get(
+        storage,
+        credentialsGeneration,
+        signatureDuration,
+        "bucket",
+        key,
+        () -> new PresignedUrlCache.PresignedUrl(
+            "https://bucket.s3.amazonaws.com/" + key + "?signature=" + signed.incrementAndGet(),
+            clock.instant().plus(lifetime)));
+  }
+}
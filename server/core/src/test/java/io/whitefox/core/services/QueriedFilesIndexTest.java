@@ -0,0 +1,59 @@
+package io.whitefox.core.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class QueriedFilesIndexTest {
+
+  private final QueriedFilesIndex index = new QueriedFilesIndex(100, 2, Duration.ofHours(1));
+
+  @Test
+  public void indexFilesOfQueriedVersion() {
+    try (var recorder = index.recorder("share", "schema", "table", 1)) {
+      recorder.record("id1", "s3://bucket/table/file1");
+    }
+    assertEquals(
+        Map.of("id1", "s3://bucket/table/file1"),
+        index.paths("share", "schema", "table", 1, List.of("id1", "id2")));
+    assertEquals(Map.of(), index.paths("share", "schema", "table", 2, List.of("id1")));
+    assertEquals(Map.of(), index.paths("share", "schema", "otherTable", 1, List.of("id1")));
+  }
+
+  @Test
+  public void mergeFilesOfQueriesOfSameVersion() {
+    // the first query is cut short, the following one still indexes its files
+    var cutShort = index.recorder("share", "schema", "table", 1);
+    cutShort.record("id1", "s3://bucket/table/file1");
+    try (var recorder = index.recorder("share", "schema", "table", 1)) {
+      recorder.record("id1", "s3://bucket/table/file1");
+      recorder.record("id2", "s3://bucket/table/file2");
+    }
+    assertEquals(
+        Map.of("id1", "s3://bucket/table/file1", "id2", "s3://bucket/table/file2"),
+        index.paths("share", "schema", "table", 1, List.of("id1", "id2")));
+  }
+
+  @Test
+  public void indexAtMostMaxFilesPerVersion() {
+    try (var recorder = index.recorder("share", "schema", "table", 1)) {
+      recorder.record("id1", "s3://bucket/table/file1");
+      recorder.record("id2", "s3://bucket/table/file2");
+    }
+    try (var recorder = index.recorder("share", "schema", "table", 1)) {
+      recorder.record("id3", "s3://bucket/table/file3");
+    }
+    assertEquals(
+        2, index.paths("share", "schema", "table", 1, List.of("id1", "id2", "id3")).size());
+  }
+
+  @Test
+  public void rejectVersionsAsLargeAsTheIndex() {
+    assertThrows(
+        IllegalArgumentException.class, () -> new QueriedFilesIndex(100, 100, Duration.ofHours(1)));
+  }
+}
@@ -0,0 +1,84 @@
+package io.whitefox.core.services;
+
+import static io.whitefox.DeltaTestUtils.deltaTable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.whitefox.core.ReadTableRequest;
+import io.whitefox.core.ReadTableResultToBeSigned;
+import io.whitefox.core.SharedTable;
+import io.whitefox.core.TableFileToBeSigned;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+@DisabledOnOs(OS.WINDOWS)
+public class ReadTableResultCacheTest {
+
+  private final ReadTableResultCache readTableResultCache =
+      new ReadTableResultCache(1000, Duration.ofMinutes(1));
+  private final SharedTable sharedTable =
+      new SharedTable("delta-table", "default", "share1", deltaTable("delta-table"));
+  private final DeltaSharedTable deltaSharedTable = DeltaSharedTable.of(sharedTable);
+
+  @Test
+  public void equivalentRequestsShareTheSameResult() {
+    var first = query(
+        0L,
+        new ReadTableRequest.ReadTableCurrentVersion(
+            Optional.of(List.of("id = 1", " date > '2021-01-01'")),
+            Optional.of("{\"op\":\"isNull\",\"children\":[{\"op\":\"column\",\"name\":\"id\"}]}"),
+            Optional.empty()));
+    var second = query(
+        0L,
+        new ReadTableRequest.ReadTableVersion(
+            Optional.of(List.of("date > '2021-01-01'", "id = 1")),
+            Optional.of(
+                "{ \"children\": [{\"name\": \"id\", \"op\": \"column\"}], \"op\": \"isNull\" }"),
+            Optional.empty(),
+            0L));
+    assertEquals(files(first), files(second));
+    assertEquals(1, readTableResultCache.stats().missCount());
+    assertEquals(1, readTableResultCache.stats().hitCount());
+  }
+
+  @Test
+  public void differentVersionsAndHintsAreCachedSeparately() {
+    var request = new ReadTableRequest.ReadTableCurrentVersion(
+        Optional.empty(), Optional.empty(), Optional.empty());
+    query(0L, request);
+    query(1L, request);
+    query(
+        0L,
+        new ReadTableRequest.ReadTableCurrentVersion(
+            Optional.empty(), Optional.empty(), Optional.of(10L)));
+    assertEquals(3, readTableResultCache.stats().missCount());
+    assertEquals(0, readTableResultCache.stats().hitCount());
+  }
+
+  @Test
+  public void cachedResultsCanBeReadMoreThanOnce() {
+    var request = new ReadTableRequest.ReadTableCurrentVersion(
+        Optional.empty(), Optional.empty(), Optional.empty());
+    query(0L, request);
+    var cached = readTableResultCache.getIfPresent(sharedTable, 0L, request);
+    assertTrue(cached.isPresent());
+    assertEquals(files(query(0L, request)), files(cached.get()));
+    assertEquals(2, readTableResultCache.stats().hitCount());
+  }
+
+  private ReadTableResultToBeSigned query(long version, ReadTableRequest request) {
+    return readTableResultCache.get(
+        sharedTable, version, request, () -> deltaSharedTable.queryTable(request));
+  }
+
+  private static List<TableFileToBeSigned> files(ReadTableResultToBeSigned result) {
+    try (var files = result.other()) {
+      return files.collect(Collectors.toList());
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package io.whitefox.core.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+public class SignatureDurationPolicyTest {
+
+  private final SignatureDurationPolicy policy = new SignatureDurationPolicy(
+      Duration.ofHours(1),
+      Optional.of(List.of("longShare=PT6H")),
+      Optional.of(List.of("slowStorage=PT2H", "fastStorage = PT15M")));
+
+  @Test
+  public void shareDurationTakesPrecedence() {
+    assertEquals(
+        Duration.ofHours(6), policy.signatureDuration(Optional.of("longShare"), "slowStorage"));
+    assertEquals(
+        Duration.ofHours(2), policy.signatureDuration(Optional.of("otherShare"), "slowStorage"));
+    assertEquals(Duration.ofMinutes(15), policy.signatureDuration(Optional.empty(), "fastStorage"));
+    assertEquals(
+        Duration.ofHours(1), policy.signatureDuration(Optional.of("otherShare"), "otherStorage"));
+  }
+
+  @Test
+  public void rejectInvalidDurations() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SignatureDurationPolicy(Duration.ZERO, Optional.empty(), Optional.empty()));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SignatureDurationPolicy(
+            Duration.ofHours(1), Optional.of(List.of("share")), Optional.empty()));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SignatureDurationPolicy(
+            Duration.ofHours(1), Optional.empty(), Optional.of(List.of("storage=1h"))));
+    // the longest validity of a SigV4 presigned URL
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SignatureDurationPolicy(
+            Duration.ofDays(7).plusSeconds(1), Optional.empty(), Optional.empty()));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SignatureDurationPolicy(
+            Duration.ofHours(1), Optional.of(List.of("share=P8D")), Optional.empty()));
+  }
+
+  @Test
+  public void acceptTheLongestPresignedUrlDuration() {
+    assertEquals(
+        Duration.ofDays(7),
+        new SignatureDurationPolicy(Duration.ofDays(7), Optional.empty(), Optional.empty())
+            .signatureDuration(Optional.empty(), "storage"));
+  }
+}
@@ -0,0 +1,81 @@
+package io.whitefox.core.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest {
+
+  private final SingleFlight<String, Integer> singleFlight =
+      new SingleFlight<>(Duration.ofSeconds(10));
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  @AfterEach
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void coalesceConcurrentComputations() throws Exception {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var computations = new AtomicInteger();
+    var leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("table", () -> {
+      started.countDown();
+      await(release);
+      return computations.incrementAndGet();
+    }), executor);
+    started.await();
+    var follower = CompletableFuture.supplyAsync(
+        () -> singleFlight.execute("table", computations::incrementAndGet), executor);
+    // give the follower the time to join the running computation
+    Thread.sleep(100);
+    release.countDown();
+    assertEquals(1, leader.get(10, TimeUnit.SECONDS));
+    assertEquals(1, follower.get(10, TimeUnit.SECONDS));
+    assertEquals(1, computations.get());
+  }
+
+  @Test
+  void doNotRememberFailures() {
+    assertThrows(
+        IllegalStateException.class,
+        () -> singleFlight.execute("table", () -> {
+          throw new IllegalStateException("boom");
+        }));
+    assertEquals(1, singleFlight.execute("table", () -> 1));
+  }
+
+  @Test
+  void computeOnTimeout() throws Exception {
+    var impatient = new SingleFlight<String, Integer>(Duration.ofMillis(10));
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var stuck = CompletableFuture.supplyAsync(() -> impatient.execute("table", () -> {
+      started.countDown();
+      await(release);
+      return 1;
+    }), executor);
+    started.await();
+    assertEquals(2, impatient.execute("table", () -> 2));
+    release.countDown();
+    assertEquals(1, stuck.get(10, TimeUnit.SECONDS));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
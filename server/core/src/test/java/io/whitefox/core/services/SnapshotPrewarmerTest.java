@@ -0,0 +1,130 @@
+package io.whitefox.core.services;
+
+import static io.whitefox.DeltaTestUtils.deltaTable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.whitefox.core.Metadata;
+import io.whitefox.core.Principal;
+import io.whitefox.core.ReadTableRequest;
+import io.whitefox.core.ReadTableResultToBeSigned;
+import io.whitefox.core.Schema;
+import io.whitefox.core.Share;
+import io.whitefox.core.SharedTable;
+import io.whitefox.persistence.memory.InMemoryStorageManager;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+@DisabledOnOs(OS.WINDOWS)
+public class SnapshotPrewarmerTest {
+
+  private final SharedTable sharedTable =
+      new SharedTable("delta-table", "default", "share1", deltaTable("delta-table"));
+  private final InMemoryStorageManager storageManager = new InMemoryStorageManager(List.of(
+      new Share(
+          "share1",
+          "key",
+          Map.of("default", new Schema("default", List.of(sharedTable), "share1")),
+          new Principal("Mr. Fox"),
+          0L),
+      new Share(
+          "share2",
+          "key",
+          Map.of(
+              "default",
+              new Schema(
+                  "default",
+                  List.of(new SharedTable(
+                      "other-table", "default", "share2", deltaTable("delta-table"))),
+                  "share2")),
+          new Principal("Mr. Fox"),
+          0L)));
+
+  private SnapshotPrewarmer prewarmer(List<String> shares, boolean warmFileList) {
+    return prewarmer(new TableLoaderFactoryImpl(), shares, warmFileList);
+  }
+
+  private SnapshotPrewarmer prewarmer(
+      TableLoaderFactory tableLoaderFactory, List<String> shares, boolean warmFileList) {
+    return new SnapshotPrewarmer(
+        storageManager,
+        tableLoaderFactory,
+        Optional.of(shares),
+        Duration.ofMinutes(1),
+        Duration.ZERO,
+        1,
+        warmFileList);
+  }
+
+  @Test
+  void onlyTablesOfOptedInShares() {
+    var tables = prewarmer(List.of("share1"), false).optedInTables();
+    assertEquals(1, tables.size());
+    assertEquals("delta-table", tables.get(0).name());
+    assertEquals(0, prewarmer(List.of(), false).optedInTables().size());
+  }
+
+  @Test
+  void warmEachVersionOnce() {
+    var prewarmer = prewarmer(List.of("share1"), true);
+    assertTrue(prewarmer.warmUp(sharedTable));
+    assertFalse(prewarmer.warmUp(sharedTable));
+  }
+
+  @Test
+  void warmAgainVersionsThatFailedToWarm() {
+    var delegate = new TableLoaderFactoryImpl();
+    var queries = new AtomicInteger();
+    TableLoaderFactory failingOnce = internalTable -> shared -> {
+      var table = delegate.newTableLoader(internalTable).loadTable(shared);
+      return new InternalSharedTable() {
+        @Override
+        public Optional<Metadata> getMetadata(Optional<Timestamp> startingTimestamp) {
+          return table.getMetadata(startingTimestamp);
+        }
+
+        @Override
+        public Optional<Long> getTableVersion(Optional<Timestamp> startingTimestamp) {
+          return table.getTableVersion(startingTimestamp);
+        }
+
+        @Override
+        public ReadTableResultToBeSigned queryTable(ReadTableRequest readTableRequest) {
+          if (queries.incrementAndGet() == 1) {
+            throw new IllegalStateException("unavailable");
+          }
+          return table.queryTable(readTableRequest);
+        }
+      };
+    };
+    var prewarmer = prewarmer(failingOnce, List.of("share1"), true);
+    assertFalse(prewarmer.warmUp(sharedTable));
+    assertTrue(prewarmer.warmUp(sharedTable));
+    assertFalse(prewarmer.warmUp(sharedTable));
+  }
+
+  @Test
+  void forgetTablesNoLongerOptedIn() {
+    var prewarmer = prewarmer(List.of("share1"), false);
+    assertTrue(prewarmer.warmUp(sharedTable));
+    prewarmer.forgetRemovedTables(List.of(sharedTable));
+    assertFalse(prewarmer.warmUp(sharedTable));
+    prewarmer.forgetRemovedTables(List.of());
+    assertTrue(prewarmer.warmUp(sharedTable));
+  }
+
+  @Test
+  void doNotFailOnMissingTables() {
+    var prewarmer = prewarmer(List.of("share1"), false);
+    assertFalse(prewarmer.warmUp(
+        new SharedTable("not-found", "default", "share1", deltaTable("not-found"))));
+  }
+}
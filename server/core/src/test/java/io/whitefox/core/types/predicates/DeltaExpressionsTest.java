@@ -0,0 +1,100 @@
+package io.whitefox.core.types.predicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.delta.standalone.actions.Metadata;
+import io.delta.standalone.expressions.And;
+import io.delta.standalone.expressions.EqualTo;
+import io.delta.standalone.expressions.Expression;
+import io.delta.standalone.expressions.GreaterThan;
+import io.delta.standalone.expressions.Literal;
+import io.delta.standalone.expressions.Not;
+import io.delta.standalone.types.StructField;
+import io.delta.standalone.types.StructType;
+import io.whitefox.core.types.*;
+import java.sql.Date;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+public class DeltaExpressionsTest {
+
+  private final StructType schema = new StructType(new StructField[] {
+    new StructField("id", new io.delta.standalone.types.IntegerType()),
+    new StructField("date", new io.delta.standalone.types.DateType())
+  });
+  private final Metadata metadata =
+      Metadata.builder().schema(schema).partitionColumns(List.of("date")).build();
+
+  @Test
+  void translatePartitionPredicates() throws PredicateException {
+    assertTranslated(
+        new EqualTo(schema.column("date"), Literal.of(Date.valueOf("2021-08-15"))),
+        List.of(date("=", "2021-08-15")));
+    assertTranslated(
+        new Not(new EqualTo(schema.column("date"), Literal.of(Date.valueOf("2021-08-15")))),
+        List.of(date("<>", "2021-08-15")));
+    // the literal comes first, so the comparison is flipped
+    var flipped = NonLeafOp.createPartitionFilter(
+        List.of(new LiteralOp("2021-08-15", DateType.DATE), new ColumnOp("date", DateType.DATE)),
+        "<");
+    assertTranslated(
+        new GreaterThan(schema.column("date"), Literal.of(Date.valueOf("2021-08-15"))),
+        List.of(flipped));
+    assertTranslated(
+        new And(
+            new EqualTo(schema.column("date"), Literal.of(Date.valueOf("2021-08-15"))),
+            new GreaterThan(schema.column("date"), Literal.of(Date.valueOf("2021-08-01")))),
+        List.of(date("=", "2021-08-15"), date(">", "2021-08-01")));
+  }
+
+  @Test
+  void leaveOutNonPartitionPredicates() throws PredicateException {
+    var onId = NonLeafOp.createPartitionFilter(
+        List.of(new ColumnOp("id", IntegerType.INTEGER), new LiteralOp("1", IntegerType.INTEGER)),
+        "=");
+    assertEquals(Optional.empty(), DeltaExpressions.partitionFilter(List.of(onId), metadata));
+    // only the conjunct on a non partition column is dropped
+    assertTranslated(
+        new EqualTo(schema.column("date"), Literal.of(Date.valueOf("2021-08-15"))),
+        List.of(new AndOp(List.of(onId, date("=", "2021-08-15")))));
+    // while a disjunction with it cannot be translated at all
+    assertEquals(
+        Optional.empty(),
+        DeltaExpressions.partitionFilter(
+            List.of(new OrOp(List.of(onId, date("=", "2021-08-15")))), metadata));
+  }
+
+  @Test
+  void doNotNegateLooserTranslations() throws PredicateException {
+    var onId = NonLeafOp.createPartitionFilter(
+        List.of(new ColumnOp("id", IntegerType.INTEGER), new LiteralOp("5", IntegerType.INTEGER)),
+        ">");
+    // NOT(date = x AND id > 5) matches rows of the partition date = x, it cannot become
+    // NOT(date = x)
+    assertEquals(
+        Optional.empty(),
+        DeltaExpressions.partitionFilter(
+            List.of(new NotOp(List.of(new AndOp(List.of(date("=", "2021-08-15"), onId))))),
+            metadata));
+    // while the negation of an exact conjunction is translated
+    assertTranslated(
+        new Not(new And(
+            new EqualTo(schema.column("date"), Literal.of(Date.valueOf("2021-08-15"))),
+            new GreaterThan(schema.column("date"), Literal.of(Date.valueOf("2021-08-01"))))),
+        List.of(new NotOp(
+            List.of(new AndOp(List.of(date("=", "2021-08-15"), date(">", "2021-08-01")))))));
+  }
+
+  private static NonLeafOp date(String operator, String value) throws PredicateException {
+    return NonLeafOp.createPartitionFilter(
+        List.of(new ColumnOp("date", DateType.DATE), new LiteralOp(value, DateType.DATE)),
+        operator);
+  }
+
+  private void assertTranslated(Expression expected, List<BaseOp> predicates) {
+    assertEquals(
+        Optional.of(expected.toString()),
+        DeltaExpressions.partitionFilter(predicates, metadata).map(Expression::toString));
+  }
+}
@@ -0,0 +1,91 @@
+package io.whitefox.core.types.predicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.whitefox.core.types.*;
+import java.util.List;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.types.Types;
+import org.junit.jupiter.api.Test;
+
+public class IcebergExpressionsTest {
+
+  private final Schema schema = new Schema(
+      Types.NestedField.optional(1, "id", Types.LongType.get()),
+      Types.NestedField.optional(2, "region", Types.StringType.get()),
+      Types.NestedField.optional(3, "date", Types.DateType.get()));
+
+  @Test
+  void translateComparisons() throws PredicateException {
+    assertTranslated(
+        Expressions.equal("id", 1L), IcebergExpressions.of(List.of(op("=", "id", "1")), schema));
+    assertTranslated(
+        Expressions.lessThan("date", "2022-01-01"),
+        IcebergExpressions.of(
+            List.of(comparison("<", "date", "2022-01-01", DateType.DATE)), schema));
+    // the literal comes first, so the comparison is flipped
+    var flipped = NonLeafOp.createPartitionFilter(
+        List.of(new LiteralOp("1", LongType.LONG), new ColumnOp("id", LongType.LONG)), "<");
+    assertTranslated(
+        Expressions.greaterThan("id", 1L), IcebergExpressions.of(List.of(flipped), schema));
+  }
+
+  @Test
+  void translateAndOr() throws PredicateException {
+    var and = new AndOp(List.of(op("=", "id", "1"), op(">", "id", "0")));
+    assertTranslated(
+        Expressions.and(Expressions.equal("id", 1L), Expressions.greaterThan("id", 0L)),
+        IcebergExpressions.of(List.of(and), schema));
+    var or = new OrOp(List.of(op("=", "id", "1"), op("=", "id", "2")));
+    assertTranslated(
+        Expressions.or(Expressions.equal("id", 1L), Expressions.equal("id", 2L)),
+        IcebergExpressions.of(List.of(or), schema));
+  }
+
+  @Test
+  void keepAllFilesWhenNotTranslatable() throws PredicateException {
+    var unknownColumn = op("=", "notPresent", "1");
+    assertEquals(Expressions.alwaysTrue(), IcebergExpressions.of(List.of(unknownColumn), schema));
+    // only the conjunct that cannot be translated is dropped
+    var and = new AndOp(List.of(unknownColumn, op("=", "id", "1")));
+    assertTranslated(Expressions.equal("id", 1L), IcebergExpressions.of(List.of(and), schema));
+    // while a disjunction of it cannot be translated at all
+    var or = new OrOp(List.of(unknownColumn, op("=", "id", "1")));
+    assertEquals(Expressions.alwaysTrue(), IcebergExpressions.of(List.of(or), schema));
+    var mismatch = NonLeafOp.createPartitionFilter(
+        List.of(new ColumnOp("id", LongType.LONG), new LiteralOp("eu", StringType.STRING)), "=");
+    assertEquals(Expressions.alwaysTrue(), IcebergExpressions.of(List.of(mismatch), schema));
+  }
+
+  @Test
+  void doNotNegateLooserTranslations() throws PredicateException {
+    // NOT(id = 1 AND notPresent = 1) matches rows with id = 1, it cannot become NOT(id = 1)
+    var partlyTranslatable = new AndOp(List.of(op("=", "id", "1"), op("=", "notPresent", "1")));
+    assertEquals(
+        Expressions.alwaysTrue(),
+        IcebergExpressions.of(List.of(new NotOp(List.of(partlyTranslatable))), schema));
+    // while the negation of an exact conjunction is translated
+    var exact = new AndOp(List.of(op("=", "id", "1"), op(">", "id", "0")));
+    assertTranslated(
+        Expressions.not(
+            Expressions.and(Expressions.equal("id", 1L), Expressions.greaterThan("id", 0L))),
+        IcebergExpressions.of(List.of(new NotOp(List.of(exact))), schema));
+  }
+
+  private static NonLeafOp op(String operator, String column, String value)
+      throws PredicateException {
+    return comparison(operator, column, value, LongType.LONG);
+  }
+
+  private static NonLeafOp comparison(String operator, String column, String value, DataType type)
+      throws PredicateException {
+    return NonLeafOp.createPartitionFilter(
+        List.of(new ColumnOp(column, type), new LiteralOp(value, type)), operator);
+  }
+
+  private static void assertTranslated(Expression expected, Expression actual) {
+    assertEquals(expected.toString(), actual.toString());
+  }
+}
@@ -0,0 +1,76 @@
+package io.whitefox.core.types.predicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.whitefox.core.types.*;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class PartitionIndexTest {
+
+  private final PartitionIndex index = PartitionIndex.of(List.of(
+      Map.of("date", "2021-09-12", "region", "eu"),
+      Map.of("date", "2021-09-12", "region", "us"),
+      Map.of("date", "2022-02-06", "region", "eu"),
+      nullRegion("2022-02-06")));
+
+  @Test
+  void equalOnPartitionColumn() throws PredicateException {
+    assertEquals(files(0, 1), index.candidates(equal("date", "2021-09-12", DateType.DATE)));
+    // files without a value for the column are kept
+    assertEquals(files(0, 2, 3), index.candidates(equal("region", "eu", StringType.STRING)));
+  }
+
+  @Test
+  void andOrOfEqualities() throws PredicateException {
+    var date = equal("date", "2022-02-06", DateType.DATE);
+    var region = equal("region", "eu", StringType.STRING);
+    assertEquals(files(2, 3), index.candidates(new AndOp(List.of(date, region))));
+    var otherRegion = equal("region", "us", StringType.STRING);
+    assertEquals(files(0, 1, 2, 3), index.candidates(new OrOp(List.of(region, otherRegion))));
+  }
+
+  @Test
+  void isNullOnPartitionColumn() throws PredicateException {
+    var isNull = NonLeafOp.createPartitionFilter(
+        List.of(new ColumnOp("region", StringType.STRING)), "isnull");
+    assertEquals(files(3), index.candidates(isNull));
+  }
+
+  @Test
+  void keepAllFilesWhenNotResolvable() throws PredicateException {
+    var lessThan = NonLeafOp.createPartitionFilter(
+        List.of(new ColumnOp("date", DateType.DATE), new LiteralOp("2022-01-01", DateType.DATE)),
+        "<");
+    assertEquals(files(0, 1, 2, 3), index.candidates(lessThan));
+    assertEquals(
+        files(0, 1, 2, 3), index.candidates(equal("id", "1", IntegerType.INTEGER)));
+    var mismatch = NonLeafOp.createPartitionFilter(
+        List.of(new ColumnOp("date", DateType.DATE), new LiteralOp("eu", StringType.STRING)), "=");
+    assertEquals(files(0, 1, 2, 3), index.candidates(mismatch));
+  }
+
+  private static NonLeafOp equal(String column, String value, DataType type)
+      throws PredicateException {
+    return NonLeafOp.createPartitionFilter(
+        List.of(new ColumnOp(column, type), new LiteralOp(value, type)), "=");
+  }
+
+  private static Map<String, String> nullRegion(String date) {
+    var partitionValues = new HashMap<String, String>();
+    partitionValues.put("date", date);
+    partitionValues.put("region", null);
+    return partitionValues;
+  }
+
+  private static BitSet files(int... positions) {
+    var files = new BitSet();
+    for (int position : positions) {
+      files.set(position);
+    }
+    return files;
+  }
+}
@@ -19,9 +19,7 @@ public class PredicateExceptionsTest {
   AddFile file = log.snapshot().getAllFiles().get(0);
 
   @Test
-  void testTypeNotSupportedExceptionGettingThrown() throws PredicateParsingException {
-
-    EvalContext context = PredicateUtils.createEvalContext(file);
+  void testTypeNotSupportedExceptionGettingThrown() {
     var predicate = "{"
         + "      \"op\":\"equal\",\n"
         + "      \"children\":[\n"
@@ -30,12 +28,12 @@ public class PredicateExceptionsTest {
         + "      ]\n"
         + "}";
 
-    var parsed = PredicateUtils.parseJsonPredicate(predicate);
-    assertThrows(TypeNotSupportedException.class, () -> parsed.evalExpectBoolean(context));
+    assertThrows(
+        TypeNotSupportedException.class, () -> PredicateUtils.compileJsonPredicate(predicate));
   }
 
   @Test
-  void testNonExistingColumnExceptionGettingThrown() throws PredicateParsingException {
+  void testNonExistingColumnExceptionGettingThrown() throws PredicateException {
 
     EvalContext context = PredicateUtils.createEvalContext(file);
     var predicate = "{"
@@ -46,14 +44,12 @@ public class PredicateExceptionsTest {
         + "      ]\n"
         + "}";
 
-    var parsed = PredicateUtils.parseJsonPredicate(predicate);
+    var parsed = PredicateUtils.compileJsonPredicate(predicate);
     assertThrows(NonExistingColumnException.class, () -> parsed.evalExpectBoolean(context));
   }
 
   @Test
-  void testTypeMismatchExceptionGettingThrown() throws PredicateParsingException {
-
-    EvalContext context = PredicateUtils.createEvalContext(file);
+  void testTypeMismatchExceptionGettingThrown() {
     var predicate = "{"
         + "      \"op\":\"equal\",\n"
         + "      \"children\":[\n"
@@ -62,14 +58,12 @@ public class PredicateExceptionsTest {
         + "      ]\n"
         + "}";
 
-    var parsed = PredicateUtils.parseJsonPredicate(predicate);
-    assertThrows(TypeMismatchException.class, () -> parsed.evalExpectBoolean(context));
+    assertThrows(
+        TypeMismatchException.class, () -> PredicateUtils.compileJsonPredicate(predicate));
   }
 
   @Test
-  void testTypeValidationExceptionGettingThrown() throws PredicateParsingException {
-
-    EvalContext context = PredicateUtils.createEvalContext(file);
+  void testTypeValidationExceptionGettingThrown() {
     var predicate = "{"
         + "      \"op\":\"equal\",\n"
         + "      \"children\":[\n"
@@ -78,7 +72,7 @@ public class PredicateExceptionsTest {
         + "      ]\n"
         + "}";
 
-    var parsed = PredicateUtils.parseJsonPredicate(predicate);
-    assertThrows(TypeValidationException.class, () -> parsed.evalExpectBoolean(context));
+    assertThrows(
+        TypeValidationException.class, () -> PredicateUtils.compileJsonPredicate(predicate));
   }
 }
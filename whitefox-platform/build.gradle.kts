@@ -32,5 +32,6 @@ dependencies {
         api("software.amazon.awssdk:utils:2.28.25")
         api("software.amazon.awssdk:url-connection-client:2.28.25")
         api("com.github.jsqlparser:jsqlparser:5.0")
+        api("com.github.luben:zstd-jni:1.5.6-6")
     }
 }